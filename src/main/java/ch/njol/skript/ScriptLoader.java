@@ -40,6 +40,7 @@ import ch.njol.skript.registrations.Classes;
 import ch.njol.skript.registrations.Converters;
 import ch.njol.skript.util.Date;
 import ch.njol.skript.util.ExceptionUtils;
+import ch.njol.skript.util.StartupPhases;
 import ch.njol.skript.util.Task;
 import ch.njol.skript.variables.Variables;
 import ch.njol.util.Callback;
@@ -271,6 +272,8 @@ final public class ScriptLoader {
 				Skript.info(m_scripts_loaded.toString(i.files, i.triggers, i.commands, start.difference(new Date())));
 			
 			SkriptEventHandler.registerBukkitEvents();
+			
+			StartupPhases.clearPrefetched();
 		};
 		if (loadAsync)
 			loadQueue.add(task);
@@ -278,6 +281,25 @@ final public class ScriptLoader {
 			task.run();
 	}
 	
+	/**
+	 * Starts reading all enabled scripts in the background so that they are already in memory when they are loaded for the first time.
+	 */
+	static void prefetchScripts() {
+		prefetchScripts(new File(Skript.getInstance().getDataFolder(), Skript.SCRIPTSFOLDER + File.separator));
+	}
+	
+	private static void prefetchScripts(final File directory) {
+		final File[] files = directory.listFiles(scriptFilter);
+		if (files == null)
+			return;
+		for (final File f : files) {
+			if (f.isDirectory())
+				prefetchScripts(f);
+			else
+				StartupPhases.prefetch(f);
+		}
+	}
+	
 	/**
 	 * Filter for enabled scripts & folders.
 	 */
@@ -711,7 +733,8 @@ final public class ScriptLoader {
 		try {
 			String name = Skript.getInstance().getDataFolder().toPath().resolve(Skript.SCRIPTSFOLDER).relativize(f.toPath()).toString();
 			assert name != null;
-			return loadStructure(new FileInputStream(f), name);
+			final InputStream prefetched = StartupPhases.takePrefetched(f);
+			return loadStructure(prefetched != null ? prefetched : new FileInputStream(f), name);
 		} catch (final IOException e) {
 			Skript.error("Could not load " + f.getName() + ": " + ExceptionUtils.toString(e));
 		}
@@ -841,21 +864,35 @@ final public class ScriptLoader {
 		return new ScriptInfo(); // Return that we unloaded literally nothing
 	}
 	
+	/**
+	 * Replaces all <tt>{&#64;option}</tt>s in the given string with their values as defined in the current script's options section.
+	 * 
+	 * @param s
+	 * @return The string with all options replaced. This is the same instance if the string didn't contain any options.
+	 */
 	public final static String replaceOptions(final String s) {
-		final String r = StringUtils.replaceAll(s, "\\{@(.+?)\\}", new Callback<String, Matcher>() {
-			@Override
-			@Nullable
-			public String run(final Matcher m) {
-				final String option = currentOptions.get(m.group(1));
-				if (option == null) {
-					Skript.error("undefined option " + m.group());
-					return m.group();
-				}
-				return option;
+		int start = s.indexOf("{@");
+		if (start == -1)
+			return s;
+		final StringBuilder b = new StringBuilder(s.length());
+		int last = 0;
+		while (start != -1) {
+			final int end = s.indexOf('}', start + 3); // options names can't be empty
+			if (end == -1)
+				break;
+			final String option = currentOptions.get(s.substring(start + 2, end));
+			b.append(s, last, start);
+			if (option == null) {
+				Skript.error("undefined option " + s.substring(start, end + 1));
+				b.append(s, start, end + 1);
+			} else {
+				b.append(option);
 			}
-		});
-		assert r != null;
-		return r;
+			last = end + 1;
+			start = s.indexOf("{@", last);
+		}
+		b.append(s, last, s.length());
+		return "" + b.toString();
 	}
 	
 	@SuppressWarnings("unchecked")
@@ -896,6 +933,8 @@ final public class ScriptLoader {
 						loopedExpr = new SkriptParser(l).parseExpression(Object.class);
 						if (loopedExpr != null)
 							loopedExpr = loopedExpr.getConvertedExpression(Object.class);
+						if (loopedExpr != null)
+							loopedExpr = loopedExpr.simplify();
 						if (loopedExpr == null) {
 							h.printErrors("Can't understand this loop: '" + name + "'");
 							continue;
@@ -925,6 +964,10 @@ final public class ScriptLoader {
 					items.add(new While(c, (SectionNode) n));
 					if (hadDelayBefore != Kleenean.TRUE && hasDelayBefore != Kleenean.FALSE)
 						hasDelayBefore = Kleenean.UNKNOWN;
+				} else if (name.equalsIgnoreCase("batch")) {
+					if (Skript.debug() || n.debug())
+						Skript.debug(indentation + "batch:");
+					items.add(new Batch((SectionNode) n));
 				} else if (name.equalsIgnoreCase("else")) {
 					if (items.size() == 0 || !(items.get(items.size() - 1) instanceof Conditional) || ((Conditional) items.get(items.size() - 1)).hasElseClause()) {
 						Skript.error("'else' has to be placed just after an 'if' or 'else if' section");
@@ -967,6 +1010,17 @@ final public class ScriptLoader {
 			}
 		}
 		
+		for (int i = 0; i < items.size(); i++) {
+			final TriggerItem item = items.get(i);
+			if (item instanceof Conditional) {
+				final TriggerItem replacement = ((Conditional) item).removeDeadBranches();
+				if (replacement == null)
+					items.remove(i--);
+				else
+					items.set(i, replacement);
+			}
+		}
+		
 		for (int i = 0; i < items.size() - 1; i++)
 			items.get(i).setNext(items.get(i + 1));
 		
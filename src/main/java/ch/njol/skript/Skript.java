@@ -28,6 +28,7 @@ import ch.njol.skript.classes.Converter;
 import ch.njol.skript.classes.data.*;
 import ch.njol.skript.command.Commands;
 import ch.njol.skript.doc.Documentation;
+import ch.njol.skript.entity.EntityIndex;
 import ch.njol.skript.events.EvtSkript;
 import ch.njol.skript.hooks.Hook;
 import ch.njol.skript.lang.*;
@@ -196,6 +197,8 @@ public final class Skript extends JavaPlugin implements Listener {
 
 
 
+		StartupPhases.begin("setup");
+		
 		ChatMessages.registerListeners();
 		Language.loadDefault(getAddonInstance());
 		
@@ -270,8 +273,13 @@ public final class Skript extends JavaPlugin implements Listener {
 		}
 		
 		
+		// reading these files doesn't depend on anything else, so it can be done while classes are registered
+		ScriptLoader.prefetchScripts();
+		StartupPhases.prefetch(new File(getDataFolder(), "aliases-english.sk"));
+		
 		getCommand("skript").setExecutor(new SkriptCommand());
 		
+		StartupPhases.begin("registration");
 		new JavaClasses();
 		new BukkitClasses();
 		new BukkitEventValues();
@@ -290,13 +298,16 @@ public final class Skript extends JavaPlugin implements Listener {
 			return;
 		}
 		
+		StartupPhases.begin("config");
 		SkriptConfig.load();
 		Language.setUseLocal(true);
 		
 		if (SkriptConfig.checkForNewVersion.value()) // We only start updater automatically if it was asked
 			Updater.start();
 		
+		StartupPhases.begin("aliases");
 		Aliases.load();
+		StartupPhases.end();
 		
 		Commands.registerListeners();
 		
@@ -310,6 +321,8 @@ public final class Skript extends JavaPlugin implements Listener {
 			public void run() {
 				assert Bukkit.getWorlds().get(0).getFullTime() == tick;
 				
+				StartupPhases.begin("hooks");
+				
 				// load hooks
 				try {
 					final JarFile jar = new JarFile(getFile());
@@ -348,6 +361,7 @@ public final class Skript extends JavaPlugin implements Listener {
 				
 				Documentation.generate(); // TODO move to test classes?
 				
+				StartupPhases.begin("variables");
 				if (logNormal())
 					info("Loading variables...");
 				final long vls = System.currentTimeMillis();
@@ -402,7 +416,9 @@ public final class Skript extends JavaPlugin implements Listener {
 				if (logNormal())
 					info("Loaded " + Variables.numVariables() + " variables in " + ((vld / 100) / 10.) + " seconds");
 				
+				StartupPhases.begin("scripts");
 				ScriptLoader.loadScripts();
+				StartupPhases.finish();
 				
 				Skript.info(m_finished_loading.toString());
 				
@@ -546,6 +562,8 @@ public final class Skript extends JavaPlugin implements Listener {
 			}
 		}, this);
 		
+		EntityIndex.start(this);
+		
 		// Tell Timings that we are here!
 		SkriptTimings.setSkript(this);
 	}
@@ -886,7 +904,7 @@ public final class Skript extends JavaPlugin implements Listener {
 	private static void stopAcceptingRegistrations() {
 		acceptRegistrations = false;
 		
-		Converters.createMissingConverters();
+		Converters.createMissingConverters(SkriptConfig.maxConverterChainLength.value());
 		
 		Classes.onRegistrationsStop();
 	}
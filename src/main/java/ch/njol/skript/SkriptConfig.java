@@ -21,6 +21,7 @@ package ch.njol.skript;
 
 import ch.njol.skript.classes.Converter;
 import ch.njol.skript.config.*;
+import ch.njol.skript.lang.ExecutionGovernor;
 import ch.njol.skript.localization.Language;
 import ch.njol.skript.log.SkriptLogger;
 import ch.njol.skript.log.Verbosity;
@@ -30,6 +31,7 @@ import ch.njol.skript.util.Task;
 import ch.njol.skript.util.Timespan;
 import ch.njol.skript.util.chat.ChatMessages;
 import ch.njol.skript.util.chat.LinkParseMode;
+import ch.njol.skript.variables.VariableCodecs;
 import ch.njol.util.Setter;
 import org.bukkit.event.EventPriority;
 
@@ -94,6 +96,18 @@ public abstract class SkriptConfig {
 	public final static Option<Boolean> usePlayerUUIDsInVariableNames = new Option<Boolean>("use player UUIDs in variable names", false); // TODO change to true later (as well as in the default config)
 	public final static Option<Boolean> enablePlayerVariableFix = new Option<Boolean>("player variable fix", true);
 	
+	/**
+	 * Whether locations, worlds, vectors and offline players are saved in the compact format of {@link VariableCodecs}
+	 */
+	public final static Option<Boolean> compactVariableEncoding = new Option<Boolean>("compact variable encoding", false)
+			.optional(true)
+			.setter(new Setter<Boolean>() {
+				@Override
+				public void set(final Boolean b) {
+					VariableCodecs.setEncodingEnabled(b);
+				}
+			});
+	
 	@SuppressWarnings("null")
 	private final static DateFormat shortDateFormat = DateFormat.getDateTimeInstance(DateFormat.SHORT, DateFormat.SHORT);
 	private final static Option<DateFormat> dateFormat = new Option<DateFormat>("date format", shortDateFormat, new Converter<String, DateFormat>() {
@@ -126,6 +140,18 @@ public abstract class SkriptConfig {
 				}
 			});
 	
+	/**
+	 * Whether log entries record which code logged them, see {@link SkriptLogger#setTrackCallers(boolean)}
+	 */
+	final static Option<Boolean> trackLogCallers = new Option<Boolean>("track log callers", false)
+			.optional(true)
+			.setter(new Setter<Boolean>() {
+				@Override
+				public void set(final Boolean b) {
+					SkriptLogger.setTrackCallers(b);
+				}
+			});
+	
 	public final static Option<EventPriority> defaultEventPriority = new Option<EventPriority>("plugin priority", EventPriority.NORMAL, new Converter<String, EventPriority>() {
 		@Override
 		@Nullable
@@ -141,6 +167,18 @@ public abstract class SkriptConfig {
 	
 	public final static Option<Boolean> logPlayerCommands = new Option<Boolean>("log player commands", false);
 	
+	/**
+	 * Size in kilobytes at which files written by the log effect are rotated, or 0 to never rotate them because of their size
+	 */
+	public final static Option<Integer> maxLogFileSize = new Option<Integer>("maximum log file size", 0)
+			.optional(true);
+	
+	/**
+	 * Time after which files written by the log effect are rotated, or 0 seconds to never rotate them because of their age
+	 */
+	public final static Option<Timespan> logFileRotationInterval = new Option<Timespan>("log file rotation interval", new Timespan(0))
+			.optional(true);
+	
 	/**
 	 * Maximum number of digits to display after the period for floats and doubles
 	 */
@@ -148,6 +186,36 @@ public abstract class SkriptConfig {
 	
 	public final static Option<Integer> maxTargetBlockDistance = new Option<Integer>("maximum target block distance", 100);
 	
+	/**
+	 * Maximum number of converters that are chained to convert between types without a direct converter, or 0 for no limit
+	 */
+	public final static Option<Integer> maxConverterChainLength = new Option<Integer>("maximum converter chain length", 0)
+			.optional(true);
+	
+	/**
+	 * Whether queries for entities of a type or around a location use the {@link ch.njol.skript.entity.EntityIndex}
+	 */
+	public final static Option<Boolean> indexEntities = new Option<Boolean>("index entities", false)
+			.optional(true);
+	
+	/**
+	 * Maximum number of block changes of batch sections applied per tick, or 0 for no limit
+	 */
+	public final static Option<Integer> maxBatchedBlockChangesPerTick = new Option<Integer>("maximum batched block changes per tick", 0)
+			.optional(true);
+	
+	/**
+	 * Time in milliseconds triggers may run per tick before they are continued in the next tick, or 0 for no limit. See {@link ExecutionGovernor}.
+	 */
+	public final static Option<Integer> triggerTimeBudget = new Option<Integer>("trigger time budget per tick", 0)
+			.optional(true)
+			.setter(new Setter<Integer>() {
+				@Override
+				public void set(final Integer millis) {
+					ExecutionGovernor.setBudget(millis);
+				}
+			});
+	
 	public final static Option<Boolean> caseSensitive = new Option<Boolean>("case sensitive", false);
 	public final static Option<Boolean> allowFunctionsBeforeDefs = new Option<Boolean>("allow function calls before definations", false)
 			.optional(true);
@@ -30,6 +30,7 @@ import ch.njol.skript.localization.*;
 import ch.njol.skript.log.BlockingLogHandler;
 import ch.njol.skript.log.SkriptLogger;
 import ch.njol.skript.util.EnchantmentType;
+import ch.njol.skript.util.StartupPhases;
 import ch.njol.skript.util.Utils;
 import ch.njol.util.NonNullPair;
 import ch.njol.util.Setter;
@@ -39,6 +40,7 @@ import org.bukkit.enchantments.Enchantment;
 import javax.annotation.Nullable;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
@@ -176,9 +178,17 @@ public abstract class Aliases {
 	 */
 	static LinkedHashMap<String, ItemType> getAliases(final String name, final ItemType value, final Variations variations) {
 		final LinkedHashMap<String, ItemType> r = new LinkedHashMap<String, ItemType>(); // LinkedHashMap to preserve order for item names
-		
+		getAliases(name, value, variations, r);
+		return r;
+	}
+	
+	/**
+	 * Adds all aliases of the given name to the given map. All recursive calls add to the same map, which is much cheaper than merging the results of
+	 * each call for names with many variations.
+	 */
+	private static void getAliases(final String name, final ItemType value, final Variations variations, final LinkedHashMap<String, ItemType> r) {
 		if ((name.contains("potion") || name.contains("water bottle") || name.contains("bottle of water")) && newPotions) { // 1.9 new potions hack
-			return r;
+			return;
 		}
 		
 		for (int i = 0; i < name.length(); i++) {
@@ -186,10 +196,10 @@ public abstract class Aliases {
 			if ("[({".indexOf(c) != -1) {
 				final int end = nextBracket(name, "])}".charAt("[({".indexOf(c)), c, i);
 				if (end == -1)
-					return r;
+					return;
 				if (c == '[') {
-					r.putAll(getAliases(concatenate(name.substring(0, i), name.substring(i + 1, end), name.substring(end + 1)), value, variations));
-					r.putAll(getAliases(concatenate(name.substring(0, i), name.substring(end + 1)), value, variations));
+					getAliases(concatenate(name.substring(0, i), name.substring(i + 1, end), name.substring(end + 1)), value, variations, r);
+					getAliases(concatenate(name.substring(0, i), name.substring(end + 1)), value, variations, r);
 				} else if (c == '(') {
 					int n = 0;
 					int last = i;
@@ -204,20 +214,20 @@ public abstract class Aliases {
 							if (n > 0)
 								continue;
 							hasParts = true;
-							r.putAll(getAliases(concatenate(name.substring(0, i), name.substring(last + 1, j), name.substring(end + 1)), value, variations));
+							getAliases(concatenate(name.substring(0, i), name.substring(last + 1, j), name.substring(end + 1)), value, variations, r);
 							last = j;
 						}
 					}
 					if (!hasParts) {
 						Skript.error(m_brackets_error.toString());
-						return r;
+						return;
 					}
-					r.putAll(getAliases(concatenate(name.substring(0, i), name.substring(last + 1, end), name.substring(end + 1)), value, variations));
+					getAliases(concatenate(name.substring(0, i), name.substring(last + 1, end), name.substring(end + 1)), value, variations, r);
 				} else {
 					assert c == '{';
 					continue;
 				}
-				return r;
+				return;
 			}
 		}
 		
@@ -228,7 +238,7 @@ public abstract class Aliases {
 			final int end = name.indexOf('}', i + 1);
 			if (end == -1) {// checked above
 				assert false;
-				return r;
+				return;
 			}
 			final String var = name.substring(i + 1, end);
 			if (variations.containsKey(var)) {
@@ -252,16 +262,16 @@ public abstract class Aliases {
 					}
 					final ItemType t = v.getValue().intersection(value);
 					if (t != null)
-						r.putAll(getAliases(n, t, variations));
+						getAliases(n, t, variations, r);
 					else
 						Skript.warning(m_empty_alias.toString(n));
 				}
 				if (!hasDefault)
-					r.putAll(getAliases(concatenate(name.substring(0, i), name.substring(end + 1)), value, variations));
+					getAliases(concatenate(name.substring(0, i), name.substring(end + 1)), value, variations, r);
 			} else {
 				Skript.error(m_unknown_variation.toString(var));
 			}
-			return r;
+			return;
 		}
 		
 		i = name.indexOf('<');
@@ -274,8 +284,8 @@ public abstract class Aliases {
 					final int g = s.lastIndexOf('@');
 					if (g != -1)
 						s = s.substring(0, g + 1) + "-";
-					r.putAll(getAliases(s, value, variations));
-					return r;
+					getAliases(s, value, variations, r);
+					return;
 				} else {
 					final String[][] os = {
 							{"item", itemSingular, itemPlural, itemGender},
@@ -293,20 +303,21 @@ public abstract class Aliases {
 								}
 								r.put(s, value);
 							}
-							return r;
+							return;
 						}
 					}
 				}
 			}
 		}
 		
-		r.put(name, value);
-		r.remove("");
-		return r;
+		if (!name.isEmpty())
+			r.put(name, value);
 	}
 	
 	@SuppressWarnings("null")
 	private final static Pattern numberWordPattern = Pattern.compile("\\d+\\s+.+");
+	@SuppressWarnings("null")
+	private final static Pattern whitespacePattern = Pattern.compile("\\s+");
 	
 	/**
 	 * Parses & adds new aliases
@@ -322,11 +333,11 @@ public abstract class Aliases {
 			return 0;
 		}
 		final HashMap<String, ItemType> aliases = getAliases();
-		final HashMap<String, ItemType> as = getAliases("" + name.replaceAll("\\s+", " "), t, variations);
+		final HashMap<String, ItemType> as = getAliases("" + whitespacePattern.matcher(name).replaceAll(" "), t, variations);
 		boolean printedStartingWithNumberError = false;
 //		boolean printedSyntaxError = false;
 		for (final Entry<String, ItemType> e : as.entrySet()) {
-			final String s = "" + e.getKey().trim().replaceAll("\\s+", " ");
+			final String s = "" + whitespacePattern.matcher(e.getKey().trim()).replaceAll(" ");
 			final NonNullPair<String, Integer> g = Noun.stripGender(s, "" + e.getKey());
 			final NonNullPair<String, String> p = Noun.getPlural(g.getFirst());
 			final String lcs = p.getFirst().toLowerCase();
@@ -687,6 +698,7 @@ public abstract class Aliases {
 			}
 		} else if ((b = lc.endsWith(" " + itemSingular)) || lc.endsWith(" " + itemPlural)) {
 			if ((i = getAlias_i("" + s.substring(0, s.length() - (b ? itemSingular.length() : itemPlural.length()) - 1))) != null) {
+				i = i.clone();
 				for (int j = 0; j < i.numTypes(); j++) {
 					final ItemData d = i.getTypes().get(j);
 					if (d.getId() != -1 && d.getId() <= Skript.MAXBLOCKID) {
@@ -732,6 +744,60 @@ public abstract class Aliases {
 		return t;
 	}
 	
+	/**
+	 * Makes all aliases that represent the same item type use a single instance of it. Expanding the variations of an alias creates a new item type for
+	 * each name, even though many of them are equal (e.g. all names of a variation that does not change the item's data), which adds up to a lot of
+	 * memory for the default aliases.
+	 * <p>
+	 * This must only be called after all aliases have been loaded, as adding aliases modifies previously added ones (see {@link ItemType#setItem(ItemType)}).
+	 * Loaded aliases are never modified afterwards, {@link #getAlias(String)} returns copies of them.
+	 * 
+	 * @param aliases
+	 * @return The number of distinct item types
+	 */
+	private static int internAliases(final HashMap<String, ItemType> aliases) {
+		final HashMap<InternedAlias, ItemType> interned = new HashMap<InternedAlias, ItemType>(aliases.size());
+		for (final Entry<String, ItemType> e : aliases.entrySet()) {
+			final ItemType t = e.getValue();
+			final ItemType i = interned.get(new InternedAlias(t));
+			if (i == null)
+				interned.put(new InternedAlias(t), t);
+			else if (i != t)
+				e.setValue(i);
+		}
+		return interned.size();
+	}
+	
+	/**
+	 * Compares item types like {@link ItemType#equals(Object)}, but also requires them to have the same item and block aliases, as those are not
+	 * included in the item type's equality.
+	 */
+	private final static class InternedAlias {
+		
+		private final ItemType type;
+		
+		InternedAlias(final ItemType type) {
+			this.type = type;
+		}
+		
+		@Override
+		public int hashCode() {
+			return type.hashCode();
+		}
+		
+		@Override
+		public boolean equals(final @Nullable Object obj) {
+			if (!(obj instanceof InternedAlias))
+				return false;
+			final ItemType other = ((InternedAlias) obj).type;
+			// getItem() and getBlock() return the item type itself if it has no item or block alias
+			return type.equals(other)
+					&& (type.getItem() == type ? other.getItem() == other : type.getItem() == other.getItem())
+					&& (type.getBlock() == type ? other.getBlock() == other : type.getBlock() == other.getBlock());
+		}
+		
+	}
+	
 	public static void clear() {
 		aliases_english.clear();
 		aliases_localised.clear();
@@ -747,6 +813,7 @@ public abstract class Aliases {
 				Language.setUseLocal(l == 1);
 				if (l == 1 && !Language.isUsingLocal())
 					break;
+				final long start = System.currentTimeMillis();
 				
 				final Config aliasConfig;
 				try {
@@ -754,7 +821,8 @@ public abstract class Aliases {
 					if (!file.exists()) {
 						Skript.error("Could not find the " + Language.getName() + " aliases file " + file.getName());
 					}
-					aliasConfig = new Config(file, false, true, "=");
+					final InputStream prefetched = StartupPhases.takePrefetched(file);
+					aliasConfig = prefetched != null ? new Config(prefetched, file.getName(), file, false, true, "=") : new Config(file, false, true, "=");
 				} catch (final IOException e) {
 					Skript.error("Could not load the " + Language.getName() + " aliases config: " + e.getLocalizedMessage());
 					return;
@@ -855,6 +923,10 @@ public abstract class Aliases {
 				
 				addMissingMaterialNames();
 				
+				final int distinct = internAliases(getAliases());
+				if (Skript.debug())
+					Skript.debug("Loaded " + getAliases().size() + " " + Language.getName() + " alias names with " + distinct + " distinct item types in " + (System.currentTimeMillis() - start) + " ms");
+				
 //			if (!SkriptConfig.keepConfigsLoaded.value())
 //				aliasConfig = null;
 				
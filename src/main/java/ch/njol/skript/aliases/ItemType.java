@@ -95,6 +95,17 @@ public class ItemType implements Unit, Iterable<ItemData>, Container<ItemStack>,
 	 */
 	private boolean ignoreMeta = false;
 	
+	/**
+	 * Item types with more than this many item datas use an {@link ItemTypeMatcher} for {@link #isOfType(int, short)}.
+	 */
+	private final static int MATCHER_THRESHOLD = 4;
+	
+	/**
+	 * Index of {@link #types}, created when first needed and discarded whenever the types change.
+	 */
+	@Nullable
+	private transient ItemTypeMatcher matcher = null;
+	
 	void setItem(final @Nullable ItemType item) {
 		if (equals(item)) { // can happen if someone defines a 'x' and 'x item/block' alias that have the same value, e.g. 'dirt' and 'dirt block'
 			this.item = null;
@@ -176,9 +187,12 @@ public class ItemType implements Unit, Iterable<ItemData>, Container<ItemStack>,
 	
 	/**
 	 * Removes the item and block aliases from this alias as it now represents a different item.
+	 * <p>
+	 * Must also be called if any of this alias's {@link ItemData}s are changed directly.
 	 */
 	public void modified() {
 		item = block = null;
+		matcher = null;
 	}
 	
 	/**
@@ -293,6 +307,12 @@ public class ItemType implements Unit, Iterable<ItemData>, Container<ItemStack>,
 	}
 	
 	public boolean isOfType(final int id, final short data) {
+		if (types.size() > MATCHER_THRESHOLD) {
+			ItemTypeMatcher m = matcher;
+			if (m == null)
+				matcher = m = new ItemTypeMatcher(types);
+			return m.isOfType(id, data);
+		}
 		for (final ItemData type : types) {
 			if (type.isOfType(id, data))
 				return true;
@@ -0,0 +1,135 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ * Copyright 2011-2017 Peter Güttinger and contributors
+ */
+package ch.njol.skript.aliases;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+/**
+ * An index of the {@link ItemData}s of an {@link ItemType} that answers {@link ItemType#isOfType(int, short)} without scanning all of them.
+ * <p>
+ * Item datas are grouped by their id. Ids whose datas only cover small data values (below 64) are stored as a bit mask of the matching data values,
+ * ids that match any data value are stored in a separate bit set, and all other ids keep their item datas for a short linear scan. Item datas that
+ * match any id are checked before the index.
+ * <p>
+ * The matcher is a snapshot of the item datas it was created from, thus it must be discarded if any of them is changed (see {@link ItemType#modified()}).
+ */
+final class ItemTypeMatcher {
+	
+	/**
+	 * Ids above this value are not indexed by an array, but are checked linearly.
+	 */
+	private final static int MAX_INDEXED_ID = Short.MAX_VALUE;
+	
+	private final static ItemData[] NO_DATAS = new ItemData[0];
+	
+	/**
+	 * Item datas with an id of -1, i.e. that match any id.
+	 */
+	private final ItemData[] anyId;
+	
+	/**
+	 * Item datas with ids that are not indexed.
+	 */
+	private final ItemData[] unindexed;
+	
+	/**
+	 * For each id whether it matches any data value. Stored as a bit set: id <tt>i</tt> is bit <tt>i & 63</tt> of <tt>allData[i >> 6]</tt>.
+	 */
+	private final long[] allData;
+	
+	/**
+	 * For each id a mask of the matching data values 0 to 63, if the id has no item datas with larger data values.
+	 */
+	private final long[] dataMasks;
+	
+	/**
+	 * For each id the item datas with larger data values, or null if the id can be matched with {@link #allData} and {@link #dataMasks} alone.
+	 */
+	private final ItemData[][] ranges;
+	
+	ItemTypeMatcher(final List<ItemData> types) {
+		final List<ItemData> anyId = new ArrayList<ItemData>(), unindexed = new ArrayList<ItemData>();
+		int maxId = -1;
+		for (final ItemData d : types) {
+			if (d.typeid == -1)
+				anyId.add(d);
+			else if (d.typeid < 0 || d.typeid > MAX_INDEXED_ID)
+				unindexed.add(d);
+			else if (d.typeid > maxId)
+				maxId = d.typeid;
+		}
+		this.anyId = anyId.toArray(NO_DATAS);
+		this.unindexed = unindexed.toArray(NO_DATAS);
+		allData = new long[(maxId >> 6) + 1];
+		dataMasks = new long[maxId + 1];
+		ranges = new ItemData[maxId + 1][];
+		for (final ItemData d : types) {
+			final int id = d.typeid;
+			if (id < 0 || id > MAX_INDEXED_ID)
+				continue;
+			if (d.dataMin == -1) {
+				allData[id >> 6] |= 1L << id;
+			} else if (d.dataMax < 64) {
+				// bits dataMin to dataMax inclusive
+				dataMasks[id] |= (-1L >>> (63 - d.dataMax)) & (-1L << d.dataMin);
+			} else {
+				final ItemData[] r = ranges[id];
+				if (r == null) {
+					ranges[id] = new ItemData[] {d};
+				} else {
+					final ItemData[] n = Arrays.copyOf(r, r.length + 1);
+					n[r.length] = d;
+					ranges[id] = n;
+				}
+			}
+		}
+	}
+	
+	boolean isOfType(final int id, final short data) {
+		for (final ItemData d : anyId) {
+			if (d.isOfType(id, data))
+				return true;
+		}
+		if (id < 0 || id >= dataMasks.length) {
+			for (final ItemData d : unindexed) {
+				if (d.isOfType(id, data))
+					return true;
+			}
+			return false;
+		}
+		if ((allData[id >> 6] & (1L << id)) != 0)
+			return true;
+		if (data >= 0 && data < 64 && (dataMasks[id] & (1L << data)) != 0)
+			return true;
+		final ItemData[] r = ranges[id];
+		if (r != null) {
+			for (final ItemData d : r) {
+				if (d.isOfType(id, data))
+					return true;
+			}
+		}
+		return false;
+	}
+	
+}
@@ -20,6 +20,7 @@
 package ch.njol.skript.bukkitutil;
 
 import ch.njol.skript.Skript;
+import ch.njol.skript.entity.EntityIndex;
 import org.bukkit.entity.Entity;
 
 import java.lang.reflect.Method;
@@ -67,6 +68,7 @@ public abstract class PassengerUtils {
 	public static void addPassenger(Entity vehicle, Entity passenger) {
 		if (vehicle == null || passenger == null)
 			return;
+		EntityIndex.moved(passenger); // passengers are moved to their vehicle
 		if (hasMultiplePassenger()) {
 			vehicle.setPassenger(passenger);
 		} else {
@@ -0,0 +1,57 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ * Copyright 2011-2017 Peter Güttinger and contributors
+ */
+package ch.njol.skript.classes;
+
+import ch.njol.skript.registrations.Converters;
+
+import javax.annotation.Nullable;
+
+/**
+ * A converter that passes values through a sequence of converters. Unlike nested {@link ChainedConverter}s this calls every converter of the chain
+ * directly, thus chains of any length only cost a single indirection.
+ * 
+ * @param <F> the type the first converter converts from
+ * @param <T> the type the last converter converts to
+ * @see Converters#createMissingConverters(int)
+ */
+public final class ComposedConverter<F, T> implements Converter<F, T> {
+	
+	private final Converter<Object, Object>[] chain;
+	
+	@SuppressWarnings("unchecked")
+	public ComposedConverter(final Converter<?, ?>... chain) {
+		assert chain.length >= 2;
+		this.chain = (Converter<Object, Object>[]) chain.clone();
+	}
+	
+	@SuppressWarnings("unchecked")
+	@Override
+	@Nullable
+	public T convert(final F f) {
+		Object o = f;
+		for (final Converter<Object, Object> c : chain) {
+			o = c.convert(o);
+			if (o == null)
+				return null;
+		}
+		return (T) o;
+	}
+	
+}
@@ -108,6 +108,17 @@ public abstract class Serializer<T> extends YggdrasilSerializer<T> {
 	 */
 	public abstract boolean mustSyncDeserialization();
 	
+	/**
+	 * Returns whether values of this type can be serialised on a different thread than the one that changed the variable, i.e. whether the values are
+	 * immutable and {@link #serialize(Object)} does not require Bukkit's main thread. Such values are handed to the variable save thread as they are
+	 * instead of being serialised when the variable is set.
+	 * 
+	 * @return Whether values can be serialised on any thread. False by default.
+	 */
+	public boolean canBeSerializedAsync() {
+		return false;
+	}
+	
 	@Override
 	public boolean canBeInstantiated(final Class<? extends T> c) {
 		assert info != null && info.getC().isAssignableFrom(c);
@@ -23,6 +23,7 @@ import ch.njol.skript.Skript;
 import ch.njol.skript.aliases.ItemType;
 import ch.njol.skript.bukkitutil.PlayerUtils;
 import ch.njol.skript.classes.Changer;
+import ch.njol.skript.util.BlockEditSession;
 import ch.njol.skript.util.Experience;
 import ch.njol.util.coll.CollectionUtils;
 import org.bukkit.block.Block;
@@ -287,10 +288,12 @@ public class DefaultChangers {
 				switch (mode) {
 					case SET:
 						assert delta != null;
-						((ItemType) delta[0]).getBlock().setBlock(block, true);
+						if (!BlockEditSession.queue(block, ((ItemType) delta[0]).getBlock()))
+							((ItemType) delta[0]).getBlock().setBlock(block, true);
 						break;
 					case DELETE:
-						block.setTypeId(0, true);
+						if (!BlockEditSession.queue(block, null))
+							block.setTypeId(0, true);
 						break;
 					case ADD:
 					case REMOVE:
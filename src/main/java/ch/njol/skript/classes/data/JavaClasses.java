@@ -127,6 +127,11 @@ public class JavaClasses {
 					public boolean mustSyncDeserialization() {
 						return false;
 					}
+					
+					@Override
+					public boolean canBeSerializedAsync() {
+						return true;
+					}
 				}).math(Number.class, new NumberArithmetic()));
 		
 		Classes.registerClass(new ClassInfo<>(Long.class, "long")
@@ -190,6 +195,11 @@ public class JavaClasses {
 					public boolean mustSyncDeserialization() {
 						return false;
 					}
+					
+					@Override
+					public boolean canBeSerializedAsync() {
+						return true;
+					}
 				}).math(Number.class, new NumberArithmetic()));
 		
 		Classes.registerClass(new ClassInfo<>(Integer.class, "integer")
@@ -251,6 +261,11 @@ public class JavaClasses {
 					public boolean mustSyncDeserialization() {
 						return false;
 					}
+					
+					@Override
+					public boolean canBeSerializedAsync() {
+						return true;
+					}
 				}).math(Number.class, new NumberArithmetic()));
 		
 		Classes.registerClass(new ClassInfo<>(Double.class, "double")
@@ -314,6 +329,11 @@ public class JavaClasses {
 					public boolean mustSyncDeserialization() {
 						return false;
 					}
+					
+					@Override
+					public boolean canBeSerializedAsync() {
+						return true;
+					}
 				}).math(Number.class, new NumberArithmetic()));
 		
 		Classes.registerClass(new ClassInfo<>(Float.class, "float")
@@ -375,6 +395,11 @@ public class JavaClasses {
 					public boolean mustSyncDeserialization() {
 						return false;
 					}
+					
+					@Override
+					public boolean canBeSerializedAsync() {
+						return true;
+					}
 				}).math(Number.class, new NumberArithmetic()));
 		
 		Classes.registerClass(new ClassInfo<>(Boolean.class, "boolean")
@@ -446,6 +471,11 @@ public class JavaClasses {
 					public boolean mustSyncDeserialization() {
 						return false;
 					}
+					
+					@Override
+					public boolean canBeSerializedAsync() {
+						return true;
+					}
 				}));
 		
 		Classes.registerClass(new ClassInfo<>(Short.class, "short")
@@ -507,6 +537,11 @@ public class JavaClasses {
 					public boolean mustSyncDeserialization() {
 						return false;
 					}
+					
+					@Override
+					public boolean canBeSerializedAsync() {
+						return true;
+					}
 				}).math(Number.class, new NumberArithmetic()));
 		
 		Classes.registerClass(new ClassInfo<>(Byte.class, "byte")
@@ -568,6 +603,11 @@ public class JavaClasses {
 					public boolean mustSyncDeserialization() {
 						return false;
 					}
+					
+					@Override
+					public boolean canBeSerializedAsync() {
+						return true;
+					}
 				}).math(Number.class, new NumberArithmetic()));
 		
 		Classes.registerClass(new ClassInfo<>(String.class, "string")
@@ -659,6 +699,11 @@ public class JavaClasses {
 					public boolean mustSyncDeserialization() {
 						return false;
 					}
+					
+					@Override
+					public boolean canBeSerializedAsync() {
+						return true;
+					}
 				}));
 	}
 }
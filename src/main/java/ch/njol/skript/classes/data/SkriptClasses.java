@@ -407,6 +407,11 @@ public class SkriptClasses {
 					public boolean mustSyncDeserialization() {
 						return false;
 					}
+					
+					@Override
+					public boolean canBeSerializedAsync() {
+						return true;
+					}
 				})
 				.math(Timespan.class, new Arithmetic<Timespan, Timespan>() {
 					@Override
@@ -0,0 +1,279 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ * Copyright 2011-2017 Peter Güttinger and contributors
+ */
+package ch.njol.skript.command;
+
+import ch.njol.skript.classes.ClassInfo;
+import ch.njol.skript.classes.Parser;
+import ch.njol.skript.lang.ParseContext;
+import ch.njol.skript.lang.SkriptParser;
+import ch.njol.skript.registrations.Classes;
+import org.bukkit.OfflinePlayer;
+
+import javax.annotation.Nullable;
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A precompiled matcher for the arguments of a {@link ScriptCommand}.
+ * <p>
+ * Only simple patterns can be compiled, i.e. patterns that consist of literal text and single, non-optional arguments where every argument is
+ * either followed by a space or is the last part of the pattern. Arguments are then parsed directly with the parsers of their types instead of
+ * backtracking through {@link SkriptParser#parseArguments(String, ScriptCommand, ScriptCommandEvent)}.
+ * <p>
+ * The matcher never prints errors: if it fails for any reason the generic parser has to be used, which results in the same arguments for any input
+ * the matcher accepts.
+ */
+final class CommandArgumentMatcher {
+	
+	/**
+	 * The pattern split into literal text (Strings) and arguments (Integers, the index of the argument).
+	 */
+	private final Object[] tokens;
+	
+	private final List<Argument<?>> arguments;
+	
+	/**
+	 * The parsers {@link Classes#parseSimple(String, Class, ParseContext)} would try for each argument, in the same order. Resolved on first use.
+	 */
+	@Nullable
+	private Parser<?>[][] parsers = null;
+	
+	/**
+	 * Space separated words of the pattern for tab completion. Literal words are stored as they are, arguments are <tt>null</tt>.
+	 * This is <tt>null</tt> if arguments are not separated from literal text by spaces.
+	 */
+	@Nullable
+	private final String[] words;
+	
+	private CommandArgumentMatcher(final Object[] tokens, final List<Argument<?>> arguments, final @Nullable String[] words) {
+		this.tokens = tokens;
+		this.arguments = arguments;
+		this.words = words;
+	}
+	
+	/**
+	 * @param pattern The pattern of the command as created by {@link Commands#loadCommand(ch.njol.skript.config.SectionNode)}
+	 * @param arguments The arguments of the command
+	 * @return A matcher for the pattern, or null if the pattern is too complex to be compiled.
+	 */
+	@Nullable
+	static CommandArgumentMatcher compile(final String pattern, final List<Argument<?>> arguments) {
+		final List<Object> tokens = new ArrayList<>();
+		final StringBuilder literal = new StringBuilder();
+		int arg = 0;
+		for (int i = 0; i < pattern.length(); i++) {
+			final char c = pattern.charAt(i);
+			switch (c) {
+				case '\\':
+					if (i == pattern.length() - 1)
+						return null;
+					literal.append(pattern.charAt(++i));
+					break;
+				case '%':
+					final int end = pattern.indexOf('%', i + 1);
+					if (end == -1 || arg >= arguments.size())
+						return null;
+					final Argument<?> a = arguments.get(arg);
+					if (a.isOptional() || !a.isSingle() || a.getType() == Object.class)
+						return null;
+					if (literal.length() != 0) {
+						tokens.add(literal.toString());
+						literal.setLength(0);
+					} else if (!tokens.isEmpty()) { // two arguments without any text in between
+						return null;
+					}
+					tokens.add(arg++);
+					i = end;
+					break;
+				case '[':
+				case ']':
+				case '(':
+				case ')':
+				case '|':
+				case '<':
+				case '>':
+					return null;
+				default:
+					literal.append(c);
+			}
+		}
+		if (literal.length() != 0)
+			tokens.add(literal.toString());
+		if (arg != arguments.size())
+			return null;
+		for (int i = 0; i < tokens.size() - 1; i++) {
+			if (tokens.get(i) instanceof Integer && ((String) tokens.get(i + 1)).charAt(0) != ' ')
+				return null;
+		}
+		return new CommandArgumentMatcher(tokens.toArray(), arguments, getWords(tokens));
+	}
+	
+	@Nullable
+	private static String[] getWords(final List<Object> tokens) {
+		final List<String> words = new ArrayList<>();
+		for (int i = 0; i < tokens.size(); i++) {
+			final Object t = tokens.get(i);
+			if (t instanceof Integer) {
+				if (i != 0 && !((String) tokens.get(i - 1)).endsWith(" "))
+					return null;
+				words.add(null);
+			} else {
+				for (final String w : ((String) t).split(" ")) {
+					if (!w.isEmpty())
+						words.add(w);
+				}
+			}
+		}
+		return words.toArray(new String[words.size()]);
+	}
+	
+	/**
+	 * Parses the given arguments and sets them for the given event if successful.
+	 * 
+	 * @param args The arguments as passed to the command
+	 * @param event The event to set the arguments for
+	 * @return Whether the arguments could be parsed. If not, nothing was changed and the generic parser has to be used.
+	 */
+	boolean parseArguments(final String args, final ScriptCommandEvent event) {
+		final Object[][] values = match(args);
+		if (values == null)
+			return false;
+		for (int i = 0; i < values.length; i++)
+			arguments.get(i).set(event, values[i]);
+		return true;
+	}
+	
+	@Nullable
+	private Object[][] match(final String args) {
+		final int length = args.length();
+		// leading, trailing and repeated spaces are subject to special treatment by the generic parser
+		if (length != 0 && (args.charAt(0) == ' ' || args.charAt(length - 1) == ' ' || args.contains("  ")))
+			return null;
+		final Object[][] values = new Object[arguments.size()][];
+		int i = 0;
+		for (int t = 0; t < tokens.length; t++) {
+			final Object token = tokens[t];
+			if (token instanceof String) {
+				i = matchLiteral((String) token, args, i);
+				if (i == -1)
+					return null;
+			} else {
+				final int index = (Integer) token;
+				final int end = t == tokens.length - 1 ? length : args.indexOf(' ', i);
+				if (end <= i)
+					return null;
+				final Object value = parse(index, "" + args.substring(i, end));
+				if (value == null)
+					return null;
+				final Object[] array = (Object[]) Array.newInstance(value.getClass(), 1);
+				array[0] = value;
+				values[index] = array;
+				i = end;
+			}
+		}
+		return i == length ? values : null;
+	}
+	
+	/**
+	 * Matches literal text of the pattern like {@link SkriptParser} does, i.e. case insensitively and with optional spaces at the start and end
+	 * of the input and after other spaces.
+	 * 
+	 * @return The index in the input after the literal, or -1 if it doesn't match
+	 */
+	private static int matchLiteral(final String literal, final String args, int i) {
+		for (int j = 0; j < literal.length(); j++) {
+			final char c = literal.charAt(j);
+			if (c == ' ') {
+				if (i == 0 || i == args.length() || args.charAt(i - 1) == ' ')
+					continue;
+				if (args.charAt(i) != ' ')
+					return -1;
+			} else if (i == args.length() || Character.toLowerCase(c) != Character.toLowerCase(args.charAt(i))) {
+				return -1;
+			}
+			i++;
+		}
+		return i;
+	}
+	
+	@Nullable
+	private Object parse(final int argument, final String s) {
+		Parser<?>[][] parsers = this.parsers;
+		if (parsers == null)
+			this.parsers = parsers = resolveParsers();
+		for (final Parser<?> p : parsers[argument]) {
+			final Object o = p.parse(s, ParseContext.COMMAND);
+			if (o != null)
+				return o;
+		}
+		return null;
+	}
+	
+	private Parser<?>[][] resolveParsers() {
+		final List<ClassInfo<?>> classInfos = Classes.getClassInfos();
+		final Parser<?>[][] parsers = new Parser<?>[arguments.size()][];
+		for (int i = 0; i < parsers.length; i++) {
+			final Class<?> type = arguments.get(i).getType();
+			final List<Parser<?>> ps = new ArrayList<>();
+			for (final ClassInfo<?> info : classInfos) {
+				final Parser<?> parser = info.getParser();
+				if (parser != null && parser.canParse(ParseContext.COMMAND) && type.isAssignableFrom(info.getC()))
+					ps.add(parser);
+			}
+			parsers[i] = ps.toArray(new Parser<?>[ps.size()]);
+		}
+		return parsers;
+	}
+	
+	/**
+	 * @param index The index of the word that is being completed
+	 * @param prefix What has been typed of the word so far
+	 * @return Possible completions of the word, or null to use Bukkit's default completions (i.e. player names).
+	 */
+	@Nullable
+	List<String> getCompletions(final int index, final String prefix) {
+		final String[] words = this.words;
+		if (words == null)
+			return null;
+		if (index >= words.length) // the last argument may consist of multiple words
+			return words.length != 0 && words[words.length - 1] == null ? getArgumentCompletions(words, words.length - 1) : Collections.<String>emptyList();
+		final String word = words[index];
+		if (word == null)
+			return getArgumentCompletions(words, index);
+		if (word.regionMatches(true, 0, prefix, 0, prefix.length()))
+			return Collections.singletonList(word);
+		return Collections.emptyList();
+	}
+	
+	@Nullable
+	private List<String> getArgumentCompletions(final String[] words, final int wordIndex) {
+		int argument = -1;
+		for (int i = 0; i <= wordIndex; i++) {
+			if (words[i] == null)
+				argument++;
+		}
+		if (OfflinePlayer.class.isAssignableFrom(arguments.get(argument).getType()))
+			return null;
+		return Collections.emptyList();
+	}
+	
+}
@@ -54,7 +54,7 @@ import java.util.Map.Entry;
  * 
  * @author Peter Güttinger
  */
-public class ScriptCommand implements CommandExecutor {
+public class ScriptCommand implements CommandExecutor, TabCompleter {
 	public final static Message m_executable_by_players = new Message("commands.executable by players");
 	public final static Message m_executable_by_console = new Message("commands.executable by console");
 	
@@ -71,6 +71,9 @@ public class ScriptCommand implements CommandExecutor {
 	private final String pattern;
 	private final List<Argument<?>> arguments;
 	
+	@Nullable
+	private final CommandArgumentMatcher matcher;
+	
 	public final static int PLAYERS = 0x1, CONSOLE = 0x2, BOTH = PLAYERS | CONSOLE;
 	final int executableBy;
 	
@@ -111,6 +114,7 @@ public class ScriptCommand implements CommandExecutor {
 		
 		this.pattern = pattern;
 		this.arguments = arguments;
+		matcher = CommandArgumentMatcher.compile(pattern, arguments);
 		
 		trigger = new Trigger(script, "command /" + name, new SimpleEvent(), items);
 		
@@ -129,6 +133,7 @@ public class ScriptCommand implements CommandExecutor {
 			bukkitCommand.setPermissionMessage(permissionMessage);
 			bukkitCommand.setUsage(usage);
 			bukkitCommand.setExecutor(this);
+			bukkitCommand.setTabCompleter(this);
 			return bukkitCommand;
 		} catch (final Exception e) {
 			Skript.outdatedError(e);
@@ -144,6 +149,16 @@ public class ScriptCommand implements CommandExecutor {
 		return true;
 	}
 	
+	@Override
+	@Nullable
+	public List<String> onTabComplete(final @Nullable CommandSender sender, final @Nullable Command command, final @Nullable String alias, final @Nullable String[] args) {
+		final CommandArgumentMatcher matcher = this.matcher;
+		if (matcher == null || args == null || args.length == 0)
+			return null;
+		final String last = args[args.length - 1];
+		return matcher.getCompletions(args.length - 1, last == null ? "" : last);
+	}
+	
 	public boolean execute(final CommandSender sender, final String commandLabel, final String rest) {
 		if (sender instanceof Player) {
 			if ((executableBy & PLAYERS) == 0) {
@@ -181,7 +196,12 @@ public class ScriptCommand implements CommandExecutor {
 		
 		final ParseLogHandler log = SkriptLogger.startParseLogHandler();
 		try {
-			final boolean ok = SkriptParser.parseArguments(rest, ScriptCommand.this, event);
+			final CommandArgumentMatcher matcher = this.matcher;
+			boolean ok = matcher != null && matcher.parseArguments(rest, event);
+			if (!ok) {
+				log.clear();
+				ok = SkriptParser.parseArguments(rest, ScriptCommand.this, event);
+			}
 			if (!ok) {
 				final LogEntry e = log.getError();
 				if (e != null)
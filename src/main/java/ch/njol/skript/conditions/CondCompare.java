@@ -29,7 +29,9 @@ import ch.njol.skript.doc.Since;
 import ch.njol.skript.lang.Condition;
 import ch.njol.skript.lang.Expression;
 import ch.njol.skript.lang.ExpressionList;
+import ch.njol.skript.lang.Literal;
 import ch.njol.skript.lang.SkriptParser.ParseResult;
+import ch.njol.skript.lang.UnparsedLiteral;
 import ch.njol.skript.log.ErrorQuality;
 import ch.njol.skript.log.RetainingLogHandler;
 import ch.njol.skript.log.SkriptLogger;
@@ -147,9 +149,24 @@ public class CondCompare extends Condition {
 			}
 		}
 		
+		first = first.simplify();
+		second = second.simplify();
+		if (third != null)
+			this.third = third.simplify();
+		
 		return true;
 	}
 	
+	@Override
+	public boolean isConstant() {
+		final Expression<?> third = this.third;
+		return isConstant(first) && isConstant(second) && (third == null || isConstant(third));
+	}
+	
+	private final static boolean isConstant(final Expression<?> e) {
+		return e instanceof Literal && !(e instanceof UnparsedLiteral);
+	}
+	
 	public final static String f(final Expression<?> e) {
 		if (e.getReturnType() == Object.class)
 			return e.toString(null, false);
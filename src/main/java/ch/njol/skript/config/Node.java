@@ -25,8 +25,6 @@ import ch.njol.util.StringUtils;
 
 import javax.annotation.Nullable;
 import java.io.PrintWriter;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * @author Peter Güttinger
@@ -114,9 +112,6 @@ public abstract class Node {
 		newParent.add(this);
 	}
 	
-	@SuppressWarnings("null")
-	private final static Pattern linePattern = Pattern.compile("^((?:[^#]|##)*)(\\s*#(?!#).*)$");
-	
 	/**
 	 * Splits a line into value and comment.
 	 * <p>
@@ -127,10 +122,21 @@ public abstract class Node {
 	 * @return A pair (value, comment).
 	 */
 	public final static NonNullPair<String, String> splitLine(final String line) {
-		final Matcher m = linePattern.matcher(line);
-		if (m.matches())
-			return new NonNullPair<>("" + m.group(1).replace("##", "#"), "" + m.group(2));
-		return new NonNullPair<>("" + line.replace("##", "#"), "");
+		final int c = getCommentStart(line);
+		final String value = c == -1 ? line : "" + line.substring(0, c);
+		return new NonNullPair<>(value.indexOf('#') == -1 ? value : "" + value.replace("##", "#"), c == -1 ? "" : "" + line.substring(c));
+	}
+	
+	/**
+	 * @param line
+	 * @return The index of the first # that is not escaped as ##, or -1 if the line doesn't have a comment.
+	 */
+	final static int getCommentStart(final String line) {
+		for (int i = line.indexOf('#'); i != -1; i = line.indexOf('#', i + 2)) {
+			if (i == line.length() - 1 || line.charAt(i + 1) != '#')
+				return i;
+		}
+		return -1;
 	}
 	
 	@Nullable
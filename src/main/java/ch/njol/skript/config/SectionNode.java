@@ -264,6 +264,39 @@ public class SectionNode extends Node implements Iterable<Node> {
 		return "'" + s.replace("\t", "->").replace(' ', '_').replaceAll("\\s", "?") + "' [-> = tab, _ = space, ? = other whitespace]";
 	}
 	
+	/**
+	 * Checks whether a string is empty or only consists of whitespace, as defined by <tt>\s</tt> in regular expressions.
+	 */
+	private final static boolean isBlank(final String s) {
+		for (int i = 0; i < s.length(); i++) {
+			if (!isWhitespace(s.charAt(i)))
+				return false;
+		}
+		return true;
+	}
+	
+	private final static boolean isWhitespace(final char c) {
+		return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+	}
+	
+	/**
+	 * @return How many times the given indentation is repeated at the start of the given string.
+	 */
+	private final static int countIndentation(final String s, final String indentation) {
+		int levels = 0;
+		for (int i = 0; s.startsWith(indentation, i); i += indentation.length())
+			levels++;
+		return levels;
+	}
+	
+	/**
+	 * Checks whether the line has a '#-#' comment, which prevents a line ending in a colon from starting a section.
+	 */
+	private final static boolean hasNoSectionComment(final String line) {
+		final int c = getCommentStart(line);
+		return c != -1 && line.startsWith("#-#", c) && (c + 3 == line.length() || isWhitespace(line.charAt(c + 3)));
+	}
+	
 	private final SectionNode load_i(final ConfigReader r) throws IOException {
 		boolean indentationSet = false;
 		String fullLine;
@@ -275,7 +308,7 @@ public class SectionNode extends Node implements Iterable<Node> {
 			final String comment = line.getSecond();
 			
 			final SectionNode parent = this.parent;
-			if (!indentationSet && parent != null && parent.parent == null && !value.isEmpty() && !value.matches("\\s*") && !value.matches("\\S.*")) {
+			if (!indentationSet && parent != null && parent.parent == null && !isBlank(value) && isWhitespace(value.charAt(0))) {
 				final String s = value.replaceFirst("\\S.*$", "");
 				assert !s.isEmpty() : fullLine;
 				if (s.matches(" +") || s.matches("\t+")) {
@@ -287,13 +320,15 @@ public class SectionNode extends Node implements Iterable<Node> {
 					continue;
 				}
 			}
-			if (!value.matches("\\s*") && !value.matches("^(" + config.getIndentation() + "){" + config.level + "}\\S.*")) {
-				if (value.matches("^(" + config.getIndentation() + "){" + config.level + "}\\s.*") || !value.matches("^(" + config.getIndentation() + ")*\\S.*")) {
+			if (!isBlank(value)) {
+				final String indentation = config.getIndentation();
+				final int levels = countIndentation(value, indentation);
+				if (levels > config.level || isWhitespace(value.charAt(levels * indentation.length()))) {
 					nodes.add(new InvalidNode(value, comment, this, r.getLineNum()));
 					final String s = "" + value.replaceFirst("\\S.*$", "");
 					Skript.error("indentation error: expected " + config.level * config.getIndentation().length() + " " + config.getIndentationName() + (config.level * config.getIndentation().length() == 1 ? "" : "s") + ", but found " + readableWhitespace(s));
 					continue;
-				} else {
+				} else if (levels < config.level) {
 					if (parent != null && !config.allowEmptySections && isEmpty()) {
 						Skript.warning("Empty configuration section! You might want to indent one or more of the subsequent lines to make them belong to this section" +
 								" or remove the colon at the end of the line if you don't want this line to start a section.");
@@ -337,7 +372,7 @@ public class SectionNode extends Node implements Iterable<Node> {
 			if (value.endsWith(":") && (config.simple
 					|| value.indexOf(config.separator) == -1
 					|| config.separator.endsWith(":") && value.indexOf(config.separator) == value.length() - config.separator.length()
-					) && !fullLine.matches("([^#]|##)*#-#(\\s.*)?")) {
+					) && !hasNoSectionComment(fullLine)) {
 				nodes.add(SectionNode.load("" + value.substring(0, value.length() - 1), comment, this, r));
 				continue;
 			}
@@ -242,7 +242,7 @@ public class EffChange extends Effect {
 				}
 			}
 			assert x != null;
-			changer = ch = v;
+			changer = ch = v.simplify();
 			
 			if (!ch.isSingle() && single) {
 				if (mode == ChangeMode.SET)
@@ -25,6 +25,7 @@ import ch.njol.skript.doc.Description;
 import ch.njol.skript.doc.Examples;
 import ch.njol.skript.doc.Name;
 import ch.njol.skript.doc.Since;
+import ch.njol.skript.entity.EntityIndex;
 import ch.njol.skript.lang.Effect;
 import ch.njol.skript.lang.Expression;
 import ch.njol.skript.lang.SkriptParser.ParseResult;
@@ -105,6 +106,7 @@ public class EffDrop extends Effect {
 							} else {
 								final Item item = l.getWorld().dropItem(l, is);
 								item.teleport(l);
+								EntityIndex.moved(item);
 								item.setVelocity(new Vector(0, 0, 0));
 								lastSpawned = item;
 							}
@@ -64,6 +64,28 @@ public class EffMessage extends Effect {
 	@SuppressWarnings("null")
 	private Expression<CommandSender> recipients;
 	
+	/**
+	 * Components and their converted form, kept together so that threads sending messages concurrently (e.g. in async events) never see the
+	 * converted components of another list.
+	 */
+	private final static class ConvertedComponents {
+		
+		final List<MessageComponent> componentList;
+		final BaseComponent[] components;
+		
+		ConvertedComponents(final List<MessageComponent> componentList, final BaseComponent[] components) {
+			this.componentList = componentList;
+			this.components = components;
+		}
+		
+	}
+	
+	/**
+	 * The components last sent. Simple strings always return the same components, so they only have to be converted once.
+	 */
+	@Nullable
+	private volatile ConvertedComponents lastComponents;
+	
 	@SuppressWarnings({"unchecked", "null"})
 	@Override
 	public boolean init(final Expression<?>[] exprs, final int matchedPattern, final Kleenean isDelayed, final ParseResult parser) {
@@ -78,15 +100,25 @@ public class EffMessage extends Effect {
 		assert messages != null;
 		if (canSendRaw) {
 			assert messages != null;
-			List<MessageComponent> componentList = ((VariableString) messages).getMessageComponents(e);
-			@SuppressWarnings("null") // Most certainly safe, but I guess not...
-			BaseComponent[] components = BungeeConverter.convert(componentList.toArray(new MessageComponent[componentList.size()]));
+			final List<MessageComponent> componentList = ((VariableString) messages).getMessageComponents(e);
+			final ConvertedComponents last = lastComponents;
+			final BaseComponent[] components;
+			if (last != null && last.componentList == componentList) {
+				components = last.components;
+			} else {
+				components = BungeeConverter.convert(componentList.toArray(new MessageComponent[componentList.size()]));
+				lastComponents = new ConvertedComponents(componentList, components);
+			}
+			String message = null;
 			for (final CommandSender s : recipients.getArray(e)) {
 				if (s instanceof Player) { // Use JSON chat
 					((Player) s).sendRawMessage(components.toString());
 				} else { // Fall back to non-JSON chat
-					assert messages != null;
-					s.sendMessage(messages.getSingle(e));
+					if (message == null) {
+						assert messages != null;
+						message = messages.getSingle(e);
+					}
+					s.sendMessage(message);
 				}
 			}
 		} else {
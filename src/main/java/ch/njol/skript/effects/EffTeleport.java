@@ -24,6 +24,7 @@ import ch.njol.skript.doc.Description;
 import ch.njol.skript.doc.Examples;
 import ch.njol.skript.doc.Name;
 import ch.njol.skript.doc.Since;
+import ch.njol.skript.entity.EntityIndex;
 import ch.njol.skript.lang.Effect;
 import ch.njol.skript.lang.Expression;
 import ch.njol.skript.lang.SkriptParser.ParseResult;
@@ -93,6 +94,7 @@ public class EffTeleport extends Effect {
 				((PlayerRespawnEvent) e).setRespawnLocation(loc);
 			} else {
 				entity.teleport(loc);
+				EntityIndex.moved(entity);
 			}
 		}
 	}
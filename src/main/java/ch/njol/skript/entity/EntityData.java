@@ -64,6 +64,17 @@ public abstract class EntityData<E extends Entity> implements SyntaxElement, Ygg
 	// must be here to be initialised before 'new SimpleLiteral' is called in the register block below
 	private final static List<EntityDataInfo<?>> infos = new ArrayList<EntityDataInfo<?>>();
 	
+	/**
+	 * The infos that an entity class belongs to, in the same order as in {@link #infos}. Only used once all entity datas have been registered.
+	 */
+	private final static ClassValue<EntityDataInfo<?>[]> infosByClass = new ClassValue<EntityDataInfo<?>[]>() {
+		@Override
+		protected EntityDataInfo<?>[] computeValue(final @Nullable Class<?> c) {
+			assert c != null;
+			return getInfos(c);
+		}
+	};
+	
 	public static Serializer<EntityData> serializer = new Serializer<EntityData>() {
 		@Override
 		public Fields serialize(final EntityData o) throws NotSerializableException {
@@ -433,7 +444,7 @@ public abstract class EntityData<E extends Entity> implements SyntaxElement, Ygg
 		assert worlds != null && worlds.length > 0 : Arrays.toString(worlds);
 		final List<E> list = new ArrayList<E>();
 		for (final World w : worlds) {
-			for (final E e : w.getEntitiesByClass(getType()))
+			for (final E e : EntityIndex.getEntitiesByClass(w, getType()))
 				if (match(e))
 					list.add(e);
 		}
@@ -469,7 +480,7 @@ public abstract class EntityData<E extends Entity> implements SyntaxElement, Ygg
 		if (worlds == null)
 			worlds = Bukkit.getWorlds().toArray(new World[0]);
 		for (final World w : worlds) {
-			for (final E e : w.getEntitiesByClass(type)) {
+			for (final E e : EntityIndex.getEntitiesByClass(w, type)) {
 				for (final EntityData<?> t : types) {
 					if (t.isInstance(e)) {
 						list.add(e);
@@ -481,19 +492,28 @@ public abstract class EntityData<E extends Entity> implements SyntaxElement, Ygg
 		return list.toArray((E[]) Array.newInstance(type, list.size()));
 	}
 	
+	private static EntityDataInfo<?>[] getInfos(final Class<?> c) {
+		final List<EntityDataInfo<?>> l = new ArrayList<EntityDataInfo<?>>();
+		for (final EntityDataInfo<?> info : infos) {
+			if (info.entityClass != Entity.class && info.entityClass.isAssignableFrom(c))
+				l.add(info);
+		}
+		return l.toArray(new EntityDataInfo<?>[l.size()]);
+	}
+	
 	private static <E extends Entity> EntityData<? super E> getData(final @Nullable Class<E> c, final @Nullable E e) {
 		assert c == null ^ e == null;
 		assert c == null || c.isInterface();
-		for (final EntityDataInfo<?> info : infos) {
-			if (info.entityClass != Entity.class && (e == null ? info.entityClass.isAssignableFrom(c) : info.entityClass.isInstance(e))) {
-				try {
-					@SuppressWarnings("unchecked")
-					final EntityData<E> d = (EntityData<E>) info.c.newInstance();
-					if (d.init(c, e))
-						return d;
-				} catch (final Exception ex) {
-					throw Skript.exception(ex);
-				}
+		final Class<?> entityClass = e == null ? c : e.getClass();
+		assert entityClass != null;
+		for (final EntityDataInfo<?> info : Skript.isAcceptRegistrations() ? getInfos(entityClass) : infosByClass.get(entityClass)) {
+			try {
+				@SuppressWarnings("unchecked")
+				final EntityData<E> d = (EntityData<E>) info.c.newInstance();
+				if (d.init(c, e))
+					return d;
+			} catch (final Exception ex) {
+				throw Skript.exception(ex);
 			}
 		}
 		if (e != null) {
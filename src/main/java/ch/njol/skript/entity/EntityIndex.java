@@ -0,0 +1,359 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ * Copyright 2011-2017 Peter Güttinger and contributors
+ */
+package ch.njol.skript.entity;
+
+import ch.njol.skript.Skript;
+import ch.njol.skript.SkriptConfig;
+import ch.njol.util.Closeable;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.entity.EntitySpawnEvent;
+import org.bukkit.event.entity.EntityTeleportEvent;
+import org.bukkit.event.hanging.HangingPlaceEvent;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerRespawnEvent;
+import org.bukkit.event.player.PlayerTeleportEvent;
+import org.bukkit.event.vehicle.VehicleCreateEvent;
+import org.bukkit.event.world.ChunkLoadEvent;
+import org.bukkit.event.world.ChunkUnloadEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
+import org.bukkit.plugin.Plugin;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Indexes the entities of each world by chunk and by class to answer repeated queries for entities of a type or entities around a location without
+ * going through all entities of the world every time.
+ * <p>
+ * Bukkit has no events for entities moving around, so the index is only valid for a single tick: it is built on demand from the entities of a
+ * world, dropped at the start of every tick and whenever chunks of the world are loaded or unloaded. Entities which spawn or teleport during a tick
+ * are tracked separately until the next tick. As {@link Entity#teleport(Location)} does not call an event for entities other than players, code that
+ * moves entities must call {@link #moved(Entity)}. Results are always checked against the current worlds and locations of the entities, and radius
+ * queries look at one additional ring of chunks to find entities which crossed a chunk border since the index was built. Entities moved further than
+ * that by other plugins without an event can still be missed, which is why the index is disabled by default.
+ * <p>
+ * Only the main thread uses the index, other threads query the worlds directly.
+ */
+public final class EntityIndex {
+	
+	private EntityIndex() {}
+	
+	/**
+	 * Number of radius queries in a world during a single tick after which its entities are indexed by chunk. Few queries are answered faster by
+	 * Bukkit, which only has to look at the chunks around the location.
+	 */
+	private final static int CHUNK_INDEX_THRESHOLD = 4;
+	
+	private final static class WorldIndex {
+		
+		/**
+		 * All entities of the world, loaded on first use
+		 */
+		@Nullable
+		List<Entity> entities = null;
+		
+		/**
+		 * Entities by chunk, created when the world has had enough radius queries
+		 */
+		@Nullable
+		Map<Long, List<Entity>> chunks = null;
+		
+		final Map<Class<?>, List<Entity>> classes = new HashMap<>();
+		
+		int radiusQueries = 0;
+		
+		List<Entity> getEntities(final World world) {
+			List<Entity> entities = this.entities;
+			if (entities == null) {
+				this.entities = entities = world.getEntities();
+			} else {
+				hits++;
+			}
+			return entities;
+		}
+		
+	}
+	
+	private final static Map<World, WorldIndex> indices = new HashMap<>();
+	
+	/**
+	 * Entities which spawned or teleported during the current tick. They may not be in the index or be in the wrong chunk.
+	 */
+	private final static Set<Entity> moved = new HashSet<>();
+	
+	private static boolean started = false;
+	
+	private static long queries = 0, hits = 0;
+	
+	/**
+	 * Registers the listeners and the task that keep the index up to date. Does nothing if the index is disabled in the config.
+	 */
+	public static void start(final Plugin plugin) {
+		if (started || !SkriptConfig.indexEntities.value())
+			return;
+		started = true;
+		Bukkit.getPluginManager().registerEvents(new Listener() {
+			@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+			public void onSpawn(final EntitySpawnEvent e) {
+				moved.add(e.getEntity());
+			}
+			
+			@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+			public void onTeleport(final EntityTeleportEvent e) {
+				moved.add(e.getEntity());
+			}
+			
+			@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+			public void onTeleport(final PlayerTeleportEvent e) {
+				moved.add(e.getPlayer());
+			}
+			
+			@EventHandler(priority = EventPriority.MONITOR)
+			public void onJoin(final PlayerJoinEvent e) {
+				moved.add(e.getPlayer());
+			}
+			
+			@EventHandler(priority = EventPriority.MONITOR)
+			public void onRespawn(final PlayerRespawnEvent e) {
+				moved.add(e.getPlayer());
+			}
+			
+			@EventHandler(priority = EventPriority.MONITOR)
+			public void onWorldChange(final PlayerChangedWorldEvent e) {
+				moved.add(e.getPlayer());
+			}
+			
+			@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+			public void onVehicleCreate(final VehicleCreateEvent e) {
+				moved.add(e.getVehicle());
+			}
+			
+			@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+			public void onHangingPlace(final HangingPlaceEvent e) {
+				moved.add(e.getEntity());
+			}
+			
+			@EventHandler(priority = EventPriority.MONITOR)
+			public void onChunkLoad(final ChunkLoadEvent e) {
+				indices.remove(e.getWorld());
+			}
+			
+			@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+			public void onChunkUnload(final ChunkUnloadEvent e) {
+				indices.remove(e.getWorld());
+			}
+			
+			@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+			public void onWorldUnload(final WorldUnloadEvent e) {
+				indices.remove(e.getWorld());
+			}
+		}, plugin);
+		Bukkit.getScheduler().runTaskTimer(plugin, new Runnable() {
+			@Override
+			public void run() {
+				indices.clear();
+				moved.clear();
+			}
+		}, 1, 1);
+		Skript.closeOnDisable(new Closeable() {
+			@Override
+			public void close() {
+				if (Skript.debug())
+					Skript.debug("Entity index: answered " + hits + " of " + queries + " queries (" + Math.round(getHitRate() * 100) + "%)");
+				indices.clear();
+				moved.clear();
+				started = false;
+			}
+		});
+	}
+	
+	/**
+	 * Marks an entity as moved during the current tick, i.e. it may not be in the index or be in the wrong chunk. Must be called whenever an entity is
+	 * teleported or otherwise moved further than it could walk, as Bukkit only calls events for some of these cases.
+	 * 
+	 * @param e The entity that has been moved
+	 */
+	public static void moved(final Entity e) {
+		if (isEnabled())
+			moved.add(e);
+	}
+	
+	private static boolean isEnabled() {
+		return started && SkriptConfig.indexEntities.value() && Bukkit.isPrimaryThread();
+	}
+	
+	/**
+	 * @return The total number of queries made through this class on the main thread while the index was enabled
+	 */
+	public static long getQueries() {
+		return queries;
+	}
+	
+	/**
+	 * @return How many queries were answered from the index, i.e. without Bukkit going through the entities of a world
+	 */
+	public static long getHits() {
+		return hits;
+	}
+	
+	/**
+	 * @return The fraction of queries answered from the index, or 0 if there were no queries
+	 */
+	public static double getHitRate() {
+		return queries == 0 ? 0 : (double) hits / queries;
+	}
+	
+	private static WorldIndex getIndex(final World world) {
+		WorldIndex index = indices.get(world);
+		if (index == null)
+			indices.put(world, index = new WorldIndex());
+		return index;
+	}
+	
+	/**
+	 * Gets all entities of the given class in the given world, like {@link World#getEntitiesByClass(Class)}.
+	 * 
+	 * @param world The world
+	 * @param type The class of the entities
+	 * @return The entities
+	 */
+	@SuppressWarnings({"unchecked", "null"})
+	public static <E extends Entity> Collection<E> getEntitiesByClass(final World world, final Class<E> type) {
+		if (!isEnabled())
+			return world.getEntitiesByClass(type);
+		queries++;
+		final WorldIndex index = getIndex(world);
+		List<Entity> entities = index.classes.get(type);
+		if (entities == null) {
+			entities = new ArrayList<>();
+			for (final Entity e : index.getEntities(world)) {
+				if (type.isInstance(e))
+					entities.add(e);
+			}
+			index.classes.put(type, entities);
+		} else {
+			hits++;
+		}
+		final List<E> r = new ArrayList<>(entities.size());
+		for (final Entity e : entities) {
+			if (e.isValid() && (moved.isEmpty() || !moved.contains(e)) && world.equals(e.getWorld()))
+				r.add((E) e);
+		}
+		for (final Entity e : moved) {
+			if (type.isInstance(e) && e.isValid() && world.equals(e.getWorld()))
+				r.add((E) e);
+		}
+		return r;
+	}
+	
+	/**
+	 * Gets the entities around the given location. The result contains at least all entities whose locations are within the given distance of the
+	 * location, but may contain other entities nearby, thus callers have to check the distance themselves.
+	 * 
+	 * @param center The location
+	 * @param radius The maximum distance from the location
+	 * @return The entities around the location
+	 */
+	@SuppressWarnings("null")
+	public static Collection<Entity> getNearbyEntities(final Location center, final double radius) {
+		final World world = center.getWorld();
+		if (!isEnabled())
+			return world.getNearbyEntities(center, radius, radius, radius);
+		queries++;
+		final WorldIndex index = getIndex(world);
+		Map<Long, List<Entity>> chunks = index.chunks;
+		if (chunks == null) {
+			if (++index.radiusQueries < CHUNK_INDEX_THRESHOLD)
+				return world.getNearbyEntities(center, radius, radius, radius);
+			index.chunks = chunks = createChunkIndex(index.getEntities(world));
+		} else {
+			hits++;
+		}
+		
+		final double x = center.getX(), y = center.getY(), z = center.getZ();
+		final List<Entity> r = new ArrayList<>();
+		final Location l = new Location(world, 0, 0, 0);
+		// one more chunk in each direction for entities that moved to another chunk since the index was built
+		final int minX = ((int) Math.floor(x - radius) >> 4) - 1, maxX = ((int) Math.floor(x + radius) >> 4) + 1;
+		final int minZ = ((int) Math.floor(z - radius) >> 4) - 1, maxZ = ((int) Math.floor(z + radius) >> 4) + 1;
+		final Collection<List<Entity>> buckets;
+		if ((long) (maxX - minX + 1) * (maxZ - minZ + 1) > chunks.size()) {
+			buckets = chunks.values();
+		} else {
+			buckets = new ArrayList<>();
+			for (int cx = minX; cx <= maxX; cx++) {
+				for (int cz = minZ; cz <= maxZ; cz++) {
+					final List<Entity> bucket = chunks.get(getChunkKey(cx, cz));
+					if (bucket != null)
+						buckets.add(bucket);
+				}
+			}
+		}
+		for (final List<Entity> bucket : buckets) {
+			for (final Entity e : bucket) {
+				if (!moved.isEmpty() && moved.contains(e))
+					continue;
+				e.getLocation(l);
+				if (Math.abs(l.getX() - x) <= radius && Math.abs(l.getY() - y) <= radius && Math.abs(l.getZ() - z) <= radius && e.isValid() && world.equals(l.getWorld()))
+					r.add(e);
+			}
+		}
+		for (final Entity e : moved) {
+			if (!e.isValid() || !world.equals(e.getWorld()))
+				continue;
+			e.getLocation(l);
+			if (Math.abs(l.getX() - x) <= radius && Math.abs(l.getY() - y) <= radius && Math.abs(l.getZ() - z) <= radius)
+				r.add(e);
+		}
+		return r;
+	}
+	
+	private static Map<Long, List<Entity>> createChunkIndex(final List<Entity> entities) {
+		final Map<Long, List<Entity>> chunks = new HashMap<>();
+		final Location l = new Location(null, 0, 0, 0);
+		for (final Entity e : entities) {
+			e.getLocation(l);
+			final Long key = getChunkKey(l.getBlockX() >> 4, l.getBlockZ() >> 4);
+			List<Entity> bucket = chunks.get(key);
+			if (bucket == null)
+				chunks.put(key, bucket = new ArrayList<>());
+			bucket.add(e);
+		}
+		return chunks;
+	}
+	
+	private static long getChunkKey(final int x, final int z) {
+		return (long) x << 32 | z & 0xFFFFFFFFL;
+	}
+	
+}
@@ -156,6 +156,30 @@ public class SimpleEntityData extends EntityData<Entity> {
 		EntityData.register(SimpleEntityData.class, "simple", Entity.class, 0, codeNames);
 	}
 	
+	/**
+	 * The first of the {@link #types} that an entity class belongs to, i.e. the type that describes entities of that class.
+	 * This is what {@link #match(Entity)} compares against, thus the whole list only has to be searched once per class.
+	 */
+	private final static ClassValue<SimpleEntityDataInfo> infoByClass = new ClassValue<SimpleEntityDataInfo>() {
+		@Override
+		@Nullable
+		protected SimpleEntityDataInfo computeValue(final @Nullable Class<?> c) {
+			assert c != null;
+			for (final SimpleEntityDataInfo info : types) {
+				if (info.c.isAssignableFrom(c))
+					return info;
+			}
+			return null;
+		}
+	};
+	
+	private static SimpleEntityDataInfo getSimpleInfo(final Class<?> c) {
+		final SimpleEntityDataInfo info = infoByClass.get(c);
+		if (info == null)
+			throw new IllegalStateException();
+		return info;
+	}
+	
 	private transient SimpleEntityDataInfo info;
 	
 	public SimpleEntityData() {
@@ -169,30 +193,12 @@ public class SimpleEntityData extends EntityData<Entity> {
 	}
 	
 	public SimpleEntityData(final Class<? extends Entity> c) {
-		assert c != null && c.isInterface() : c;
-		int i = 0;
-		for (final SimpleEntityDataInfo info : types) {
-			if (info.c.isAssignableFrom(c)) {
-				this.info = info;
-				matchedPattern = i;
-				return;
-			}
-			i++;
-		}
-		throw new IllegalStateException();
+		this(getSimpleInfo(c));
+		assert c.isInterface() : c;
 	}
 	
 	public SimpleEntityData(final Entity e) {
-		int i = 0;
-		for (final SimpleEntityDataInfo info : types) {
-			if (info.c.isInstance(e)) {
-				this.info = info;
-				matchedPattern = i;
-				return;
-			}
-			i++;
-		}
-		throw new IllegalStateException();
+		this(getSimpleInfo(e.getClass()));
 	}
 	
 	@SuppressWarnings("null")
@@ -216,12 +222,9 @@ public class SimpleEntityData extends EntityData<Entity> {
 	public boolean match(final Entity e) {
 		if (info.isSupertype)
 			return info.c.isInstance(e);
-		for (final SimpleEntityDataInfo info : types) {
-			if (info.c.isInstance(e))
-				return this.info.c == info.c;
-		}
-		assert false;
-		return false;
+		final SimpleEntityDataInfo info = infoByClass.get(e.getClass());
+		assert info != null : e.getClass();
+		return info != null && this.info.c == info.c;
 	}
 	
 	@Override
@@ -21,7 +21,9 @@ package ch.njol.skript.events;
 
 import ch.njol.skript.Skript;
 import ch.njol.skript.SkriptEventHandler;
+import ch.njol.skript.events.PeriodicalScheduler.ScheduledTask;
 import ch.njol.skript.events.bukkit.ScheduledEvent;
+import ch.njol.skript.lang.ExecutionGovernor;
 import ch.njol.skript.lang.Literal;
 import ch.njol.skript.lang.SelfRegisteringSkriptEvent;
 import ch.njol.skript.lang.SkriptParser.ParseResult;
@@ -90,12 +92,13 @@ public class EvtAtTime extends SelfRegisteringSkriptEvent implements Comparable<
 		return true;
 	}
 	
-	private static int taskID = -1;
+	@Nullable
+	private static ScheduledTask task = null;
 	
 	private static void registerListener() {
-		if (taskID != -1)
+		if (task != null)
 			return;
-		taskID = Bukkit.getScheduler().scheduleSyncRepeatingTask(Skript.getInstance(), new Runnable() {
+		task = PeriodicalScheduler.schedule(new Runnable() {
 			@SuppressWarnings("null")
 			@Override
 			public void run() {
@@ -128,7 +131,7 @@ public class EvtAtTime extends SelfRegisteringSkriptEvent implements Comparable<
 					i.lastTick = tick;
 				}
 			}
-		}, 0, CHECKPERIOD);
+		}, "at time", CHECKPERIOD);
 	}
 	
 	void execute(final World w) {
@@ -137,6 +140,8 @@ public class EvtAtTime extends SelfRegisteringSkriptEvent implements Comparable<
 			assert false;
 			return;
 		}
+		if (ExecutionGovernor.skipIfSuspended(t))
+			return;
 		final ScheduledEvent e = new ScheduledEvent(w);
 		SkriptEventHandler.logEventStart(e);
 		SkriptEventHandler.logTriggerEnd(t);
@@ -179,10 +184,11 @@ public class EvtAtTime extends SelfRegisteringSkriptEvent implements Comparable<
 	
 	@Override
 	public void unregisterAll() {
-		if (taskID != -1)
-			Bukkit.getScheduler().cancelTask(taskID);
+		final ScheduledTask task = EvtAtTime.task;
+		if (task != null)
+			PeriodicalScheduler.cancel(task);
 		t = null;
-		taskID = -1;
+		EvtAtTime.task = null;
 		triggers.clear();
 	}
 	
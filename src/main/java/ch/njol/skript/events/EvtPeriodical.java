@@ -21,14 +21,15 @@ package ch.njol.skript.events;
 
 import ch.njol.skript.Skript;
 import ch.njol.skript.SkriptEventHandler;
+import ch.njol.skript.events.PeriodicalScheduler.ScheduledTask;
 import ch.njol.skript.events.bukkit.ScheduledEvent;
 import ch.njol.skript.events.bukkit.ScheduledNoWorldEvent;
+import ch.njol.skript.lang.ExecutionGovernor;
 import ch.njol.skript.lang.Literal;
 import ch.njol.skript.lang.SelfRegisteringSkriptEvent;
 import ch.njol.skript.lang.SkriptParser.ParseResult;
 import ch.njol.skript.lang.Trigger;
 import ch.njol.skript.util.Timespan;
-import org.bukkit.Bukkit;
 import org.bukkit.World;
 import org.bukkit.event.Event;
 
@@ -61,7 +62,7 @@ public class EvtPeriodical extends SelfRegisteringSkriptEvent {
 	@Nullable
 	private Trigger t;
 	@Nullable
-	private int[] taskIDs;
+	private ScheduledTask[] tasks;
 	
 	@Nullable
 	private transient World[] worlds;
@@ -88,6 +89,8 @@ public class EvtPeriodical extends SelfRegisteringSkriptEvent {
 			assert false;
 			return;
 		}
+		if (ExecutionGovernor.skipIfSuspended(t))
+			return;
 		final ScheduledEvent e = w == null ? new ScheduledNoWorldEvent() : new ScheduledEvent(w);
 		SkriptEventHandler.logEventStart(e);
 		SkriptEventHandler.logTriggerStart(t);
@@ -100,45 +103,44 @@ public class EvtPeriodical extends SelfRegisteringSkriptEvent {
 	@Override
 	public void register(final Trigger t) {
 		this.t = t;
-		int[] taskIDs;
+		final long ticks = Math.max(1, period.getTicks_i());
+		ScheduledTask[] tasks;
 		if (worlds == null) {
-			taskIDs = new int[] {Bukkit.getScheduler().scheduleSyncRepeatingTask(Skript.getInstance(), new Runnable() {
+			tasks = new ScheduledTask[] {PeriodicalScheduler.schedule(new Runnable() {
 				@Override
 				public void run() {
 					execute(null);
 				}
-			}, period.getTicks_i(), period.getTicks_i())};
+			}, toString(null, false), ticks)};
 		} else {
-			taskIDs = new int[worlds.length];
+			tasks = new ScheduledTask[worlds.length];
 			for (int i = 0; i < worlds.length; i++) {
 				final World w = worlds[i];
-				taskIDs[i] = Bukkit.getScheduler().scheduleSyncRepeatingTask(Skript.getInstance(), new Runnable() {
+				tasks[i] = PeriodicalScheduler.scheduleAligned(new Runnable() {
 					@Override
 					public void run() {
 						execute(w);
 					}
-				}, period.getTicks_i() - (w.getFullTime() % period.getTicks_i()), period.getTicks_i());
+				}, toString(null, false) + " in " + w.getName(), ticks - (w.getFullTime() % ticks), ticks);
 				assert worlds != null; // FindBugs
 			}
 		}
-		this.taskIDs = taskIDs;
+		this.tasks = tasks;
 	}
 	
 	@Override
 	public void unregister(final Trigger t) {
 		assert t == this.t;
-		this.t = null;
-		assert taskIDs != null;
-		for (final int taskID : taskIDs)
-			Bukkit.getScheduler().cancelTask(taskID);
+		unregisterAll();
 	}
 	
 	@Override
 	public void unregisterAll() {
 		t = null;
-		assert taskIDs != null;
-		for (final int taskID : taskIDs)
-			Bukkit.getScheduler().cancelTask(taskID);
+		final ScheduledTask[] tasks = this.tasks;
+		assert tasks != null;
+		for (final ScheduledTask task : tasks)
+			PeriodicalScheduler.cancel(task);
 	}
 	
 	@Override
@@ -0,0 +1,333 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ * Copyright 2011-2017 Peter Güttinger and contributors
+ */
+package ch.njol.skript.events;
+
+import ch.njol.skript.Skript;
+import ch.njol.skript.util.Timespan;
+import org.bukkit.Bukkit;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Runs all periodical triggers from a single task that is executed every tick, instead of scheduling a Bukkit task for each of them.
+ * <p>
+ * Scheduled tasks are grouped by their period and their phase, i.e. the tick within the period they are run at. Tasks that don't have to run at a
+ * specific tick are given the phase with the fewest tasks of the same period, thus e.g. forty 'every second' triggers are spread over the 20 ticks of
+ * a second instead of all running in the same tick.
+ * <p>
+ * The time spent in every group of tasks is recorded and logged when the scheduler stops, i.e. when all scripts are reloaded or Skript is disabled,
+ * if the verbosity is at least high.
+ * <p>
+ * This class must only be used from the main thread.
+ */
+final class PeriodicalScheduler {
+	
+	private PeriodicalScheduler() {}
+	
+	/**
+	 * Tasks without a fixed phase are spread over at most this many ticks of their period, so that tasks with long periods don't wait too long
+	 * for their first execution.
+	 */
+	private final static int MAX_SPREAD = 20 * 60;
+	
+	/**
+	 * A task that has been scheduled with {@link PeriodicalScheduler#schedule(Runnable, String, long)} or
+	 * {@link PeriodicalScheduler#scheduleAligned(Runnable, String, long, long)}. Can be cancelled with {@link PeriodicalScheduler#cancel(ScheduledTask)}.
+	 */
+	final static class ScheduledTask {
+		
+		final Runnable runnable;
+		final String label;
+		final Bucket bucket;
+		
+		/**
+		 * The tick of the scheduler before which this task must not run.
+		 */
+		final long firstTick;
+		
+		boolean cancelled = false;
+		
+		ScheduledTask(final Runnable runnable, final String label, final Bucket bucket, final long firstTick) {
+			this.runnable = runnable;
+			this.label = label;
+			this.bucket = bucket;
+			this.firstTick = firstTick;
+		}
+		
+	}
+	
+	/**
+	 * All tasks with the same period and phase.
+	 */
+	private final static class Bucket {
+		
+		final PeriodGroup group;
+		final long phase;
+		
+		/**
+		 * Replaced instead of modified as tasks may be scheduled or cancelled while the bucket is running.
+		 */
+		ScheduledTask[] tasks = new ScheduledTask[0];
+		
+		long runs = 0, totalTime = 0, maxTime = 0;
+		
+		Bucket(final PeriodGroup group, final long phase) {
+			this.group = group;
+			this.phase = phase;
+		}
+		
+		void run(final long tick) {
+			final long start = System.nanoTime();
+			boolean ran = false;
+			for (final ScheduledTask t : tasks) {
+				if (t.cancelled || tick < t.firstTick)
+					continue;
+				ran = true;
+				try {
+					t.runnable.run();
+				} catch (final Exception e) {
+					Skript.exception(e, "Exception while running '" + t.label + "'");
+				}
+			}
+			if (!ran)
+				return;
+			final long time = System.nanoTime() - start;
+			runs++;
+			totalTime += time;
+			if (time > maxTime)
+				maxTime = time;
+		}
+		
+		String report() {
+			return String.format(Locale.ENGLISH, "every %s (tick %d): %d task%s, %d runs, %.3f ms average, %.3f ms max",
+					Timespan.fromTicks_i(group.period), phase, tasks.length, tasks.length == 1 ? "" : "s", runs,
+					totalTime / 1000000.0 / runs, maxTime / 1000000.0);
+		}
+		
+	}
+	
+	/**
+	 * All buckets with the same period, sorted by their phase.
+	 */
+	private final static class PeriodGroup {
+		
+		final long period;
+		
+		long[] phases = new long[0];
+		Bucket[] buckets = new Bucket[0];
+		
+		PeriodGroup(final long period) {
+			this.period = period;
+		}
+		
+		@Nullable
+		Bucket get(final long phase) {
+			final int i = Arrays.binarySearch(phases, phase);
+			return i < 0 ? null : buckets[i];
+		}
+		
+		Bucket getOrCreate(final long phase) {
+			final int i = Arrays.binarySearch(phases, phase);
+			if (i >= 0)
+				return buckets[i];
+			final int insert = -i - 1;
+			final Bucket b = new Bucket(this, phase);
+			final long[] phases = new long[this.phases.length + 1];
+			final Bucket[] buckets = new Bucket[phases.length];
+			System.arraycopy(this.phases, 0, phases, 0, insert);
+			System.arraycopy(this.buckets, 0, buckets, 0, insert);
+			phases[insert] = phase;
+			buckets[insert] = b;
+			System.arraycopy(this.phases, insert, phases, insert + 1, this.phases.length - insert);
+			System.arraycopy(this.buckets, insert, buckets, insert + 1, this.buckets.length - insert);
+			this.phases = phases;
+			this.buckets = buckets;
+			return b;
+		}
+		
+		void remove(final Bucket b) {
+			final int i = Arrays.binarySearch(phases, b.phase);
+			assert i >= 0 && buckets[i] == b;
+			final long[] phases = new long[this.phases.length - 1];
+			final Bucket[] buckets = new Bucket[phases.length];
+			System.arraycopy(this.phases, 0, phases, 0, i);
+			System.arraycopy(this.buckets, 0, buckets, 0, i);
+			System.arraycopy(this.phases, i + 1, phases, i, phases.length - i);
+			System.arraycopy(this.buckets, i + 1, buckets, i, buckets.length - i);
+			this.phases = phases;
+			this.buckets = buckets;
+		}
+		
+		/**
+		 * @return The phase with the fewest tasks among the first {@link #MAX_SPREAD} ticks of the period, preferring earlier phases.
+		 */
+		long getLeastUsedPhase() {
+			final long spread = Math.min(period, MAX_SPREAD);
+			long best = 0;
+			int bestTasks = Integer.MAX_VALUE;
+			int i = 0;
+			for (long phase = 0; phase < spread; phase++) {
+				while (i < phases.length && phases[i] < phase)
+					i++;
+				final int tasks = i < phases.length && phases[i] == phase ? buckets[i].tasks.length : 0;
+				if (tasks < bestTasks) {
+					if (tasks == 0)
+						return phase;
+					best = phase;
+					bestTasks = tasks;
+				}
+			}
+			return best;
+		}
+		
+	}
+	
+	/**
+	 * Replaced instead of modified as tasks may be scheduled or cancelled while the scheduler is running.
+	 */
+	private static PeriodGroup[] groups = new PeriodGroup[0];
+	
+	/**
+	 * The number of times the scheduler has run, i.e. the current tick. This is not reset when the scheduler is stopped to keep the phases of tasks
+	 * consistent.
+	 */
+	private static long tick = 0;
+	
+	private static int taskID = -1;
+	
+	/**
+	 * Reports of buckets that have been removed since the scheduler was started.
+	 */
+	private final static List<String> reports = new ArrayList<>();
+	
+	/**
+	 * Schedules a task that doesn't have to run at a specific tick. It is first run after at least one period.
+	 * 
+	 * @param r
+	 * @param label A description of the task for error messages
+	 * @param period The period in ticks
+	 * @return The scheduled task
+	 */
+	static ScheduledTask schedule(final Runnable r, final String label, final long period) {
+		final PeriodGroup g = getGroup(Math.max(1, period));
+		return add(r, label, g.getOrCreate(g.getLeastUsedPhase()), tick + g.period - 1);
+	}
+	
+	/**
+	 * Schedules a task that is first run after the given delay, and then repeatedly with the given period, e.g. to align it with the time of a world.
+	 * 
+	 * @param r
+	 * @param label A description of the task for error messages
+	 * @param delay The delay until the first execution in ticks, at least 1
+	 * @param period The period in ticks
+	 * @return The scheduled task
+	 */
+	static ScheduledTask scheduleAligned(final Runnable r, final String label, final long delay, final long period) {
+		final PeriodGroup g = getGroup(Math.max(1, period));
+		// the scheduler's next run will have the current value of 'tick'
+		final long firstTick = tick + Math.max(1, delay) - 1;
+		return add(r, label, g.getOrCreate(firstTick % g.period), firstTick);
+	}
+	
+	/**
+	 * Cancels a task. Does nothing if it has already been cancelled.
+	 * 
+	 * @param t
+	 */
+	static void cancel(final ScheduledTask t) {
+		if (t.cancelled)
+			return;
+		t.cancelled = true;
+		final Bucket b = t.bucket;
+		final List<ScheduledTask> tasks = new ArrayList<>(Arrays.asList(b.tasks));
+		tasks.remove(t);
+		if (!tasks.isEmpty()) {
+			b.tasks = tasks.toArray(new ScheduledTask[tasks.size()]);
+			return;
+		}
+		if (b.runs > 0)
+			reports.add(b.report());
+		b.tasks = new ScheduledTask[0];
+		final PeriodGroup g = b.group;
+		g.remove(b);
+		if (g.buckets.length != 0)
+			return;
+		final List<PeriodGroup> groups = new ArrayList<>(Arrays.asList(PeriodicalScheduler.groups));
+		groups.remove(g);
+		PeriodicalScheduler.groups = groups.toArray(new PeriodGroup[groups.size()]);
+		if (groups.isEmpty())
+			stop();
+	}
+	
+	private static PeriodGroup getGroup(final long period) {
+		for (final PeriodGroup g : groups) {
+			if (g.period == period)
+				return g;
+		}
+		final PeriodGroup g = new PeriodGroup(period);
+		final PeriodGroup[] groups = Arrays.copyOf(PeriodicalScheduler.groups, PeriodicalScheduler.groups.length + 1);
+		groups[groups.length - 1] = g;
+		PeriodicalScheduler.groups = groups;
+		return g;
+	}
+	
+	private static ScheduledTask add(final Runnable r, final String label, final Bucket b, final long firstTick) {
+		final ScheduledTask t = new ScheduledTask(r, label, b, firstTick);
+		final ScheduledTask[] tasks = Arrays.copyOf(b.tasks, b.tasks.length + 1);
+		tasks[tasks.length - 1] = t;
+		b.tasks = tasks;
+		start();
+		return t;
+	}
+	
+	private static void start() {
+		if (taskID != -1)
+			return;
+		taskID = Bukkit.getScheduler().scheduleSyncRepeatingTask(Skript.getInstance(), new Runnable() {
+			@Override
+			public void run() {
+				final long tick = PeriodicalScheduler.tick++;
+				for (final PeriodGroup g : groups) {
+					final Bucket b = g.get(tick % g.period);
+					if (b != null)
+						b.run(tick);
+				}
+			}
+		}, 1, 1);
+	}
+	
+	private static void stop() {
+		if (taskID != -1) {
+			Bukkit.getScheduler().cancelTask(taskID);
+			taskID = -1;
+		}
+		if (Skript.logHigh() && !reports.isEmpty()) {
+			Skript.info("Execution times of periodical triggers:");
+			for (final String r : reports)
+				Skript.info("  " + r);
+		}
+		reports.clear();
+	}
+	
+}
@@ -195,6 +195,8 @@ public class ExprArithmetic extends SimpleExpression<Number> {
 	@SuppressWarnings("null")
 	@Override
 	public Expression<? extends Number> simplify() {
+		first = first.simplify();
+		second = second.simplify();
 		if (first instanceof Literal && second instanceof Literal)
 			return new SimpleLiteral<>(getArray(null), Number.class, false);
 		return this;
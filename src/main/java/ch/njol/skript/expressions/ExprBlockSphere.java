@@ -20,6 +20,8 @@
 package ch.njol.skript.expressions;
 
 import ch.njol.skript.Skript;
+import ch.njol.skript.aliases.ItemType;
+import ch.njol.skript.classes.Changer.ChangeMode;
 import ch.njol.skript.doc.Description;
 import ch.njol.skript.doc.Examples;
 import ch.njol.skript.doc.Name;
@@ -28,6 +30,7 @@ import ch.njol.skript.lang.Expression;
 import ch.njol.skript.lang.ExpressionType;
 import ch.njol.skript.lang.SkriptParser.ParseResult;
 import ch.njol.skript.lang.util.SimpleExpression;
+import ch.njol.skript.util.BlockRegionIterator;
 import ch.njol.skript.util.BlockSphereIterator;
 import ch.njol.util.Kleenean;
 import ch.njol.util.coll.iterator.EmptyIterator;
@@ -88,6 +91,24 @@ public class ExprBlockSphere extends SimpleExpression<Block> {
 		return list.toArray(new Block[list.size()]);
 	}
 	
+	@Override
+	public void change(final Event e, final @Nullable Object[] delta, final ChangeMode mode) {
+		if (mode != ChangeMode.SET && mode != ChangeMode.DELETE) {
+			super.change(e, delta, mode);
+			return;
+		}
+		// change the blocks chunk by chunk instead of creating an array of all blocks first
+		final Iterator<Block> iter = iterator(e);
+		if (!(iter instanceof BlockRegionIterator))
+			return;
+		if (mode == ChangeMode.SET) {
+			assert delta != null;
+			((BlockRegionIterator) iter).setAll(((ItemType) delta[0]).getBlock(), true);
+		} else {
+			((BlockRegionIterator) iter).clearAll(true);
+		}
+	}
+	
 	@Override
 	public Class<? extends Block> getReturnType() {
 		return Block.class;
@@ -25,6 +25,7 @@ import ch.njol.skript.doc.Examples;
 import ch.njol.skript.doc.Name;
 import ch.njol.skript.doc.Since;
 import ch.njol.skript.entity.EntityData;
+import ch.njol.skript.entity.EntityIndex;
 import ch.njol.skript.lang.Expression;
 import ch.njol.skript.lang.ExpressionType;
 import ch.njol.skript.lang.Literal;
@@ -188,7 +189,7 @@ public class ExprEntities extends SimpleExpression<Entity> {
 			if (n == null)
 				return null;
 			final double d = n.doubleValue();
-			final Collection<Entity> es = l.getWorld().getNearbyEntities(l, d, d, d);
+			final Collection<Entity> es = EntityIndex.getNearbyEntities(l, d);
 			final double radiusSquared = d * d * Skript.EPSILON_MULT;
 			final EntityData<?>[] ts = types.getAll(e);
 			return new CheckedIterator<>(es.iterator(), new NullableChecker<Entity>() {
@@ -224,7 +225,7 @@ public class ExprEntities extends SimpleExpression<Entity> {
 							w++;
 							if (w == ws.length)
 								return null;
-							curIter = ws[w].getEntitiesByClass(returnType).iterator();
+							curIter = EntityIndex.getEntitiesByClass(ws[w], returnType).iterator();
 						}
 						while (curIter.hasNext()) {
 							final Entity current = curIter.next();
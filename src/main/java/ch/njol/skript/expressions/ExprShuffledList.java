@@ -30,13 +30,11 @@ import ch.njol.skript.lang.Expression;
 import ch.njol.skript.lang.ExpressionType;
 import ch.njol.skript.lang.SkriptParser.ParseResult;
 import ch.njol.skript.lang.util.SimpleExpression;
+import ch.njol.skript.util.ListSorter;
 import ch.njol.util.Kleenean;
 import org.bukkit.event.Event;
 
 import javax.annotation.Nullable;
-import java.util.Arrays;
-import java.util.Collections;
-import java.util.List;
 
 @Name("Shuffled List")
 @Description("Shuffles given list randomly. This is done by replacing indices by random numbers in resulting list.")
@@ -45,7 +43,7 @@ import java.util.List;
 public class ExprShuffledList extends SimpleExpression<Object> {
 	
 	static{
-		Skript.registerExpression(ExprSortedList.class, Object.class, ExpressionType.COMBINED, "shuffled %objects%");
+		Skript.registerExpression(ExprShuffledList.class, Object.class, ExpressionType.COMBINED, "shuffled %objects%");
 	}
 	
 	@SuppressWarnings("null")
@@ -61,15 +59,9 @@ public class ExprShuffledList extends SimpleExpression<Object> {
 	@Override
 	@Nullable
 	protected Object[] get(Event e) {
-		Object[] origin = list.getAll(e);
-		List<Object> shuffled = Arrays.asList(origin.clone()); // Not yet shuffled...
-		
-		try {
-			Collections.shuffle(shuffled);
-		} catch (IllegalArgumentException ex) { // In case elements are not comparable
-			Skript.error("Tried to sort a list, but some objects are not comparable!");
-		}
-		return shuffled.toArray();
+		Object[] shuffled = list.getAll(e).clone();
+		ListSorter.shuffle(shuffled);
+		return shuffled;
 	}
 	
 	@Override
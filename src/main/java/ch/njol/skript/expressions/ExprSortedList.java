@@ -27,67 +27,109 @@ import ch.njol.skript.doc.Since;
 import ch.njol.skript.lang.Expression;
 import ch.njol.skript.lang.ExpressionType;
 import ch.njol.skript.lang.SkriptParser.ParseResult;
+import ch.njol.skript.lang.Variable;
 import ch.njol.skript.lang.util.SimpleExpression;
-import ch.njol.skript.registrations.Classes;
+import ch.njol.skript.util.ListSorter;
 import ch.njol.util.Kleenean;
+import ch.njol.util.Pair;
 import org.bukkit.event.Event;
 
 import javax.annotation.Nullable;
-import java.util.Arrays;
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
 
 @Name("Sorted List")
-@Description("Sorts given list in natural order. All objects in list must be comparable; usually if you think you can compare it, it can be compared.")
-@Examples({"set {_list::*} to  sorted {_list::*"})
-@Since("2.2-dev19")
+@Description({"Sorts given list in natural order. All objects in list must be comparable; usually if you think you can compare it, it can be compared.",
+		"A list can also be sorted by the values of another list, which must have as many values as the sorted list, "
+		+ "and the indices of a list variable can be sorted by the variable's values. Both keep the order of equal values."})
+@Examples({"set {_list::*} to sorted {_list::*}",
+		"set {_names::*} to sorted {_names::*} by {_scores::*}",
+		"loop sorted indices of {money::*}:",
+		"	send \"%loop-value%: %{money::%loop-value%}%\""})
+@Since("2.2-dev19, 2.2-dev33 (sorting by other values, sorted indices)")
 public class ExprSortedList extends SimpleExpression<Object> {
 	
 	static{
-		Skript.registerExpression(ExprSortedList.class, Object.class, ExpressionType.COMBINED, "sorted %objects%");
+		Skript.registerExpression(ExprSortedList.class, Object.class, ExpressionType.COMBINED,
+				"sorted %objects% by %objects%",
+				"sorted indices of %~objects%",
+				"sorted %objects%");
 	}
 	
 	@SuppressWarnings("null")
 	private Expression<Object> list;
+	@Nullable
+	private Expression<Object> keys;
+	private boolean indices;
 	
 	@SuppressWarnings({"null", "unchecked"})
 	@Override
 	public boolean init(Expression<?>[] exprs, int matchedPattern, Kleenean isDelayed, ParseResult parseResult) {
-		Class<? extends Object> type = exprs[0].getReturnType();
-		if (Comparable.class.isAssignableFrom(type)) {
-			Skript.error("List of type " + Classes.toString(type) + " does not support sorting.");
+		list = (Expression<Object>) exprs[0];
+		if (matchedPattern == 0)
+			keys = (Expression<Object>) exprs[1];
+		indices = matchedPattern == 1;
+		if (indices && !(list instanceof Variable && ((Variable<?>) list).isList())) {
+			Skript.error("Only the indices of list variables can be sorted");
 			return false;
 		}
-		list = (Expression<Object>) exprs[0];
 		return true;
 	}
 	
 	@Override
 	@Nullable
 	protected Object[] get(Event e) {
-		Object[] unsorted = list.getAll(e);
-		Object[] sorted = new Object[unsorted.length]; // Not yet sorted...
+		if (indices) {
+			List<String> names = new ArrayList<>();
+			List<Object> values = new ArrayList<>();
+			Iterator<Pair<String, Object>> iter = ((Variable<?>) list).variablesIterator(e);
+			while (iter.hasNext()) {
+				Pair<String, Object> p = iter.next();
+				names.add(p.getFirst());
+				values.add(p.getSecond());
+			}
+			return reorder(names.toArray(new String[0]), values.toArray());
+		}
 		
-		for (int i = 0; i < sorted.length; i++) {
-			Object value = unsorted[i];
-			if (value instanceof Long) {
-				// Hope it fits to the double...
-				sorted[i] = new Double(((Long) value).longValue());
-			} else {
-				// No conversion needed
-				sorted[i] = value;
+		Object[] unsorted = list.getAll(e);
+		Expression<Object> keys = this.keys;
+		if (keys != null) {
+			Object[] k = keys.getAll(e);
+			if (k.length != unsorted.length) {
+				Skript.error("Tried to sort a list by another list with a different number of values!");
+				return unsorted;
 			}
+			return reorder(unsorted, k);
 		}
 		
-		try {
-			Arrays.sort(sorted); // Now sorted
-		} catch (IllegalArgumentException ex) { // In case elements are not comparable
+		Object[] sorted = ListSorter.sort(unsorted);
+		if (sorted == null) {
+			Skript.error("Tried to sort a list, but some objects are not comparable!");
+			return unsorted;
+		}
+		return sorted;
+	}
+	
+	/**
+	 * @return The values in the order of the keys
+	 */
+	private Object[] reorder(Object[] values, Object[] keys) {
+		int[] order = ListSorter.order(keys);
+		if (order == null) {
 			Skript.error("Tried to sort a list, but some objects are not comparable!");
+			return values;
 		}
+		Object[] sorted = (Object[]) Array.newInstance(getReturnType(), values.length);
+		for (int i = 0; i < order.length; i++)
+			sorted[i] = values[order[i]];
 		return sorted;
 	}
 	
 	@Override
 	public Class<? extends Object> getReturnType() {
-		return Object.class;
+		return indices ? String.class : list.getReturnType();
 	}
 	
 	@Override
@@ -97,7 +139,10 @@ public class ExprSortedList extends SimpleExpression<Object> {
 
 	@Override
 	public String toString(@Nullable Event e, boolean debug) {
-		return "sorted list";
+		Expression<Object> keys = this.keys;
+		if (indices)
+			return "sorted indices of " + list.toString(e, debug);
+		return "sorted " + list.toString(e, debug) + (keys != null ? " by " + keys.toString(e, debug) : "");
 	}
 	
 }
\ No newline at end of file
@@ -28,6 +28,7 @@ import ch.njol.skript.doc.Name;
 import ch.njol.skript.doc.Since;
 import ch.njol.skript.effects.Delay;
 import ch.njol.skript.entity.EntityData;
+import ch.njol.skript.entity.EntityIndex;
 import ch.njol.skript.expressions.base.SimplePropertyExpression;
 import ch.njol.util.coll.CollectionUtils;
 import org.bukkit.entity.Entity;
@@ -120,6 +121,7 @@ public class ExprVehicle extends SimplePropertyExpression<Entity, Entity> {
 				assert p != null;
 				p.leaveVehicle();
 				((Entity) o).setPassenger(p);
+				EntityIndex.moved(p);
 			} else if (o instanceof EntityData) {
 				for (final Entity p : ps) {
 					@SuppressWarnings("null")
@@ -127,6 +129,7 @@ public class ExprVehicle extends SimplePropertyExpression<Entity, Entity> {
 					if (v == null)
 						continue;
 					v.setPassenger(p);
+					EntityIndex.moved(p);
 				}
 			} else {
 				assert false;
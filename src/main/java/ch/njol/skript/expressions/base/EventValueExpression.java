@@ -68,8 +68,51 @@ public class EventValueExpression<T> extends SimpleExpression<T> implements Defa
 	private final Class<? extends T> c;
 	@Nullable
 	private Changer<? super T> changer;
+	/**
+	 * The getters for the events this expression is used in, filled in {@link #init()}.
+	 */
 	private final Map<Class<? extends Event>, Getter<? extends T, ?>> getters = new HashMap<>();
 	
+	/**
+	 * If there's only one getter, the event it has been resolved for and the getter itself. Any event that is an instance of this event can then be
+	 * passed directly to the getter.
+	 */
+	@Nullable
+	private Class<? extends Event> boundEvent = null;
+	@Nullable
+	private Getter<? extends T, ?> boundGetter = null;
+	
+	/**
+	 * The getter to use for each class of events this expression is evaluated with if there is more than one getter. Resolved from {@link #getters} on
+	 * first use of each class, which unlike a plain map is safe if this expression is evaluated from multiple threads.
+	 */
+	private final ClassValue<Getter<? extends T, ?>> getterCache = new ClassValue<Getter<? extends T, ?>>() {
+		@SuppressWarnings("unchecked")
+		@Override
+		protected Getter<? extends T, ?> computeValue(final @Nullable Class<?> type) {
+			assert type != null;
+			final Getter<? extends T, ?> g = getters.get(type);
+			if (g != null)
+				return g;
+			for (final Entry<Class<? extends Event>, Getter<? extends T, ?>> p : getters.entrySet()) {
+				if (p.getKey().isAssignableFrom(type))
+					return p.getValue();
+			}
+			return (Getter<? extends T, ?>) NO_VALUE;
+		}
+	};
+	
+	/**
+	 * Used for events that don't have a value of this expression's type.
+	 */
+	private final static Getter<Object, Event> NO_VALUE = new Getter<Object, Event>() {
+		@Override
+		@Nullable
+		public Object get(final Event e) {
+			return null;
+		}
+	};
+	
 	public EventValueExpression(final Class<? extends T> c) {
 		this(c, null);
 	}
@@ -96,21 +139,11 @@ public class EventValueExpression<T> extends SimpleExpression<T> implements Defa
 	@SuppressWarnings("unchecked")
 	@Nullable
 	private <E extends Event> T getValue(final E e) {
-		if (getters.containsKey(e.getClass())) {
-			final Getter<? extends T, ? super E> g = (Getter<? extends T, ? super E>) getters.get(e.getClass());
-			return g == null ? null : g.get(e);
-		}
-		
-		for (final Entry<Class<? extends Event>, Getter<? extends T, ?>> p : getters.entrySet()) {
-			if (p.getKey().isAssignableFrom(e.getClass())) {
-				getters.put(e.getClass(), p.getValue());
-				return p.getValue() == null ? null : ((Getter<? extends T, ? super E>) p.getValue()).get(e);
-			}
-		}
-		
-		getters.put(e.getClass(), null);
-		
-		return null;
+		final Class<? extends Event> be = boundEvent;
+		final Getter<? extends T, ?> bg = boundGetter;
+		if (be != null && bg != null)
+			return be.isInstance(e) ? ((Getter<? extends T, ? super E>) bg).get(e) : null;
+		return ((Getter<? extends T, ? super E>) getterCache.get(e.getClass())).get(e);
 	}
 	
 	@Override
@@ -146,6 +179,14 @@ public class EventValueExpression<T> extends SimpleExpression<T> implements Defa
 				log.printError("There's no " + Classes.getSuperClassInfo(c).getName() + " in " + Utils.a(ScriptLoader.getCurrentEventName()) + " event");
 				return false;
 			}
+			if (getters.size() == 1) {
+				final Entry<Class<? extends Event>, Getter<? extends T, ?>> g = getters.entrySet().iterator().next();
+				boundEvent = g.getKey();
+				boundGetter = g.getValue();
+			} else {
+				boundEvent = null;
+				boundGetter = null;
+			}
 			log.printLog();
 			return true;
 		} finally {
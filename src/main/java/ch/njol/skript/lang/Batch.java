@@ -0,0 +1,111 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ * Copyright 2011-2017 Peter Güttinger and contributors
+ */
+package ch.njol.skript.lang;
+
+import ch.njol.skript.config.SectionNode;
+import ch.njol.skript.util.BlockEditSession;
+import org.bukkit.event.Event;
+
+import javax.annotation.Nullable;
+
+/**
+ * A section whose block changes are collected and applied together at its end, see {@link BlockEditSession}.
+ * <p>
+ * The items of the section are run directly by this section until execution leaves the section, e.g. at its end, by exiting it, or by a delay. The
+ * changes made until then are applied before continuing.
+ * <p>
+ * If the {@link ExecutionGovernor} pauses the trigger within the section, the changes made so far are applied and the section continues with a new
+ * batch in the next tick.
+ */
+public class Batch extends TriggerSection {
+	
+	public Batch(final SectionNode node) {
+		super(node);
+	}
+	
+	@Override
+	@Nullable
+	protected TriggerItem walk(final Event e) {
+		return walkFrom(walk(e, true), e);
+	}
+	
+	@Nullable
+	TriggerItem walkFrom(final @Nullable TriggerItem first, final Event e) {
+		if (!BlockEditSession.start(this))
+			return first;
+		TriggerItem i = first;
+		try {
+			while (i != null && isInSection(i)) {
+				i = i.walk(e);
+				if (i != null && isInSection(i) && ExecutionGovernor.isEnabled() && ExecutionGovernor.shouldSuspend())
+					return new Continuation(this, i);
+			}
+		} finally {
+			BlockEditSession.end(this);
+		}
+		return i;
+	}
+	
+	/**
+	 * Continues a batch section that has been paused by the {@link ExecutionGovernor} with a new batch.
+	 */
+	private final static class Continuation extends TriggerItem {
+		
+		private final Batch batch;
+		private final TriggerItem next;
+		
+		Continuation(final Batch batch, final TriggerItem next) {
+			super(batch);
+			this.batch = batch;
+			this.next = next;
+		}
+		
+		@Override
+		@Nullable
+		protected TriggerItem walk(final Event e) {
+			return batch.walkFrom(next, e);
+		}
+		
+		@Override
+		protected boolean run(final Event e) {
+			throw new UnsupportedOperationException();
+		}
+		
+		@Override
+		public String toString(final @Nullable Event e, final boolean debug) {
+			return batch.toString(e, debug);
+		}
+		
+	}
+	
+	private boolean isInSection(final TriggerItem item) {
+		for (TriggerItem i = item; i != null; i = i.getParent()) {
+			if (i == this)
+				return true;
+		}
+		return false;
+	}
+	
+	@Override
+	public String toString(final @Nullable Event e, final boolean debug) {
+		return "batch";
+	}
+	
+}
@@ -55,6 +55,18 @@ public abstract class Condition extends Statement {
 		return check(e);
 	}
 	
+	/**
+	 * Checks whether this condition always has the same result, i.e. doesn't depend on the event, variables or the state of the server.
+	 * Branches of conditionals with constant conditions are removed after loading.
+	 * <p>
+	 * The default implementation returns false.
+	 * 
+	 * @return whether {@link #check(Event)} will always return the same value, independently of the event passed to it.
+	 */
+	public boolean isConstant() {
+		return false;
+	}
+	
 	/**
 	 * Sets the negation state of this condition. This will change the behaviour of {@link Expression#check(Event, Checker, boolean)}.
 	 * 
@@ -19,6 +19,7 @@
  */
 package ch.njol.skript.lang;
 
+import ch.njol.skript.Skript;
 import ch.njol.skript.config.SectionNode;
 import org.bukkit.event.Event;
 
@@ -40,6 +41,11 @@ public class Conditional extends TriggerSection {
 	@Nullable
 	private TriggerSection elseClause = null;
 	
+	/**
+	 * Set if the condition is constant and always true, in which case it is not checked anymore.
+	 */
+	private boolean alwaysTrue = false;
+	
 	public Conditional(final Condition cond, final SectionNode node) {
 		super(node);
 		this.cond = cond;
@@ -48,7 +54,7 @@ public class Conditional extends TriggerSection {
 	@Override
 	@Nullable
 	protected TriggerItem walk(final Event e) {
-		if (cond.run(e)) {
+		if (alwaysTrue || cond.run(e)) {
 			return walk(e, true);
 		} else {
 			debug(e, false);
@@ -96,6 +102,35 @@ public class Conditional extends TriggerSection {
 				.setNext(getNext());
 	}
 	
+	/**
+	 * Removes the branches of this conditional (including 'else if's and 'else') that can never be executed because their conditions are constant.
+	 * Must only be called after all else clauses have been loaded.
+	 * 
+	 * @return The item this conditional should be replaced with: itself, its else clause, or null if it can be removed altogether.
+	 */
+	@SuppressWarnings("null")
+	@Nullable
+	public TriggerItem removeDeadBranches() {
+		if (!cond.isConstant()) {
+			if (elseClause instanceof Conditional)
+				elseClause = (TriggerSection) ((Conditional) elseClause).removeDeadBranches();
+			return this;
+		}
+		final TriggerSection elseClause = this.elseClause;
+		if (cond.run(null)) {
+			if (Skript.debug())
+				Skript.debug("'" + cond.toString(null, true) + "' is always true" + (elseClause == null ? "" : ", removed its else branches"));
+			alwaysTrue = true;
+			this.elseClause = null;
+			return this;
+		}
+		if (Skript.debug())
+			Skript.debug("'" + cond.toString(null, true) + "' is always false, removed its section");
+		if (elseClause instanceof Conditional)
+			return ((Conditional) elseClause).removeDeadBranches();
+		return elseClause;
+	}
+	
 	public boolean hasElseClause() {
 		return elseClause != null && !(elseClause instanceof Conditional);
 	}
@@ -0,0 +1,250 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ * Copyright 2011-2017 Peter Güttinger and contributors
+ */
+package ch.njol.skript.lang;
+
+import ch.njol.skript.Skript;
+import ch.njol.skript.effects.Delay;
+import ch.njol.skript.events.bukkit.ScheduledEvent;
+import ch.njol.skript.timings.SkriptTimings;
+import org.bukkit.Bukkit;
+import org.bukkit.event.Event;
+
+import javax.annotation.Nullable;
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * Limits the time triggers may run on the main thread per tick.
+ * <p>
+ * {@link TriggerItem#walk(TriggerItem, Event)} checks the time used by all triggers in the current tick after every item it runs. If it exceeds the
+ * budget set in the config, the trigger is continued in the next tick like after a <tt>wait a tick</tt>. This is only done for triggers that can be
+ * delayed without changing what they do, i.e. periodical triggers and triggers that have been delayed before, and never within functions or other
+ * nested executions. Triggers of other events always run to completion, but are counted as overruns. Periodical events don't run a trigger again
+ * while a previous execution of it is paused (see {@link #skipIfSuspended(Trigger)}), thus paused executions can't pile up. Batch sections are paused
+ * as well, applying the changes made so far (see {@link Batch}).
+ * <p>
+ * Every minute a warning is logged for each script whose triggers had to be continued in a later tick, and at verbosity high also for scripts that
+ * exceeded the budget without being able to be delayed.
+ */
+public final class ExecutionGovernor {
+	
+	private ExecutionGovernor() {}
+	
+	private final static int REPORT_INTERVAL = 20 * 60;
+	
+	private final static class ScriptStats {
+		
+		ScriptStats() {}
+		
+		long time = 0;
+		int walks = 0, suspensions = 0, overruns = 0, skips = 0;
+		
+	}
+	
+	/**
+	 * The time triggers may run per tick in nanoseconds, or 0 if the governor is disabled.
+	 */
+	private static long budget = 0;
+	
+	/**
+	 * The time used by triggers in the current tick in nanoseconds, excluding the currently running trigger.
+	 */
+	private static long used = 0;
+	
+	/**
+	 * How many walks are currently nested on the main thread.
+	 */
+	private static int depth = 0;
+	
+	private static long walkStart = 0;
+	private static boolean delaySafe = false, overrun = false, suspended = false;
+	
+	private static int taskID = -1;
+	private static int ticks = 0;
+	
+	private final static Map<File, ScriptStats> stats = new HashMap<>();
+	
+	/**
+	 * The number of paused executions of each trigger that has any
+	 */
+	private final static Map<Trigger, Integer> suspendedExecutions = new HashMap<>();
+	
+	/**
+	 * @param millis The time triggers may run per tick in milliseconds, or 0 to disable the governor
+	 */
+	public static void setBudget(final int millis) {
+		budget = Math.max(0, millis) * 1000000L;
+		if (budget != 0 && taskID == -1) {
+			taskID = Bukkit.getScheduler().scheduleSyncRepeatingTask(Skript.getInstance(), new Runnable() {
+				@Override
+				public void run() {
+					used = 0;
+					if (++ticks % REPORT_INTERVAL == 0)
+						report();
+				}
+			}, 1, 1);
+		} else if (budget == 0 && taskID != -1) {
+			Bukkit.getScheduler().cancelTask(taskID);
+			taskID = -1;
+			report();
+		}
+	}
+	
+	public static boolean isEnabled() {
+		return budget != 0;
+	}
+	
+	/**
+	 * Called when a walk starts.
+	 * <p>
+	 * A walk is delay-safe if it doesn't start at a trigger, i.e. it continues an execution after a delay or a suspension. Whether the event is
+	 * {@link Delay#isDelayed(Event) delayed} can't be used, as the same event is passed to all triggers, including those that have never been delayed.
+	 * 
+	 * @param start The item the walk starts with
+	 * @param e The event of the walk
+	 * @return Whether the walk is tracked, in which case {@link #exit(TriggerItem)} must be called when it ends.
+	 */
+	static boolean enter(final TriggerItem start, final Event e) {
+		if (!Bukkit.isPrimaryThread())
+			return false;
+		if (depth++ == 0) {
+			walkStart = System.nanoTime();
+			delaySafe = e instanceof ScheduledEvent || !(start instanceof Trigger);
+			overrun = false;
+			suspended = false;
+		}
+		return true;
+	}
+	
+	/**
+	 * Called after every item of a tracked walk.
+	 * 
+	 * @return Whether the walk should be suspended and continued with {@link #suspend(TriggerItem, Event)}
+	 */
+	static boolean shouldSuspend() {
+		if (depth != 1 || used + System.nanoTime() - walkStart <= budget)
+			return false;
+		if (delaySafe)
+			return true;
+		overrun = true;
+		return false;
+	}
+	
+	/**
+	 * Continues a walk in the next tick, the same way {@link Delay} does.
+	 * 
+	 * @param next The next item to run
+	 * @param e
+	 */
+	static void suspend(final TriggerItem next, final Event e) {
+		assert depth == 1;
+		suspended = true;
+		Delay.addDelayedEvent(e);
+		final Trigger trigger = next.getTrigger();
+		if (trigger != null) {
+			final Integer count = suspendedExecutions.get(trigger);
+			suspendedExecutions.put(trigger, count == null ? 1 : count + 1);
+		}
+		Bukkit.getScheduler().scheduleSyncDelayedTask(Skript.getInstance(), new Runnable() {
+			@Override
+			public void run() {
+				if (trigger != null) {
+					final Integer count = suspendedExecutions.get(trigger);
+					if (count == null || count <= 1)
+						suspendedExecutions.remove(trigger);
+					else
+						suspendedExecutions.put(trigger, count - 1);
+				}
+				
+				Object timing = null;
+				if (trigger != null && SkriptTimings.enabled())
+					timing = SkriptTimings.start(trigger.getDebugLabel());
+				
+				TriggerItem.walk(next, e);
+				
+				SkriptTimings.stop(timing);
+			}
+		}, 1);
+	}
+	
+	/**
+	 * Checks whether an execution of the given trigger is currently paused. Periodical events use this to skip executing the trigger again until the
+	 * paused execution has finished, which is counted in the statistics of the trigger's script.
+	 * 
+	 * @param t
+	 * @return Whether the trigger should not be executed now
+	 */
+	public static boolean skipIfSuspended(final Trigger t) {
+		if (suspendedExecutions.isEmpty() || !suspendedExecutions.containsKey(t))
+			return false;
+		final File script = t.getScript();
+		if (script != null)
+			getStats(script).skips++;
+		return true;
+	}
+	
+	private static ScriptStats getStats(final File script) {
+		ScriptStats s = stats.get(script);
+		if (s == null)
+			stats.put(script, s = new ScriptStats());
+		return s;
+	}
+	
+	/**
+	 * Called when a tracked walk ends.
+	 * 
+	 * @param start The item the walk started with
+	 */
+	static void exit(final TriggerItem start) {
+		if (--depth != 0)
+			return;
+		final long time = System.nanoTime() - walkStart;
+		used += time;
+		final Trigger t = start.getTrigger();
+		final File script = t == null ? null : t.getScript();
+		if (script == null)
+			return;
+		final ScriptStats s = getStats(script);
+		s.time += time;
+		s.walks++;
+		if (suspended)
+			s.suspensions++;
+		if (overrun)
+			s.overruns++;
+	}
+	
+	private static void report() {
+		for (final Entry<File, ScriptStats> e : stats.entrySet()) {
+			final ScriptStats s = e.getValue();
+			if (s.suspensions != 0 || s.skips != 0) {
+				Skript.warning("The script '" + e.getKey().getName() + "' exceeded the trigger time budget per tick: " + s.suspensions + " of " + s.walks
+						+ " executions had to be continued in a later tick (" + s.time / 1000000 + " ms in total)"
+						+ (s.skips == 0 ? "" : ", and " + s.skips + " periodical executions were skipped as the previous one was still paused"));
+			} else if (s.overruns != 0 && Skript.logHigh()) {
+				Skript.info("The script '" + e.getKey().getName() + "' exceeded the trigger time budget per tick " + s.overruns + " times in triggers that cannot be delayed ("
+						+ s.walks + " executions, " + s.time / 1000000 + " ms in total)");
+			}
+		}
+		stats.clear();
+	}
+	
+}
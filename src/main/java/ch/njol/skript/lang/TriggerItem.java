@@ -82,10 +82,21 @@ public abstract class TriggerItem implements Debuggable {
 	 */
 	public final static boolean walk(final TriggerItem start, final Event e) {
 		assert start != null && e != null;
+		final boolean governed = ExecutionGovernor.isEnabled() && ExecutionGovernor.enter(start, e);
 		TriggerItem i = start;
 		try {
-			while (i != null)
-				i = i.walk(e);
+			if (governed) {
+				while (i != null) {
+					i = i.walk(e);
+					if (i != null && ExecutionGovernor.shouldSuspend()) {
+						ExecutionGovernor.suspend(i, e);
+						break;
+					}
+				}
+			} else {
+				while (i != null)
+					i = i.walk(e);
+			}
 			
 			return true;
 		} catch (final StackOverflowError err) {
@@ -97,6 +108,9 @@ public abstract class TriggerItem implements Debuggable {
 		} catch (final Exception ex) {
 			if (ex.getStackTrace().length != 0) // empty exceptions have already been printed
 				Skript.exception(ex, i);
+		} finally {
+			if (governed)
+				ExecutionGovernor.exit(start);
 		}
 		return false;
 	}
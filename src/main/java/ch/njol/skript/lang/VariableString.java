@@ -37,6 +37,7 @@ import ch.njol.skript.registrations.Classes;
 import ch.njol.skript.util.StringMode;
 import ch.njol.skript.util.Utils;
 import ch.njol.skript.util.chat.ChatMessages;
+import ch.njol.skript.util.chat.LinkParseMode;
 import ch.njol.skript.util.chat.MessageComponent;
 import ch.njol.util.Checker;
 import ch.njol.util.Kleenean;
@@ -63,7 +64,7 @@ public class VariableString implements Expression<String> {
 			this.expr = expr;
 		}
 		
-		final Expression<?> expr;
+		Expression<?> expr;
 		int flags = 0;
 		boolean toChatStyle = false;
 	}
@@ -81,6 +82,54 @@ public class VariableString implements Expression<String> {
 	private final String simpleUnformatted;
 	private final StringMode mode;
 	
+	/**
+	 * First character used as placeholder for expressions when parsing chat components, followed by one character per expression. These characters
+	 * are from Unicode's private use area, thus shouldn't be used in scripts.
+	 */
+	private final static char PLACEHOLDER = '\uE000';
+	private final static int MAX_PLACEHOLDERS = 0x1000;
+	
+	/**
+	 * The chat components of this string, parsed once with placeholders for expressions and reused as long as the chat codes and settings don't change.
+	 */
+	private final static class MessageTemplate {
+		
+		private final int codesVersion = ChatMessages.getCodesVersion();
+		private final LinkParseMode linkParseMode = ChatMessages.linkParseMode;
+		private final boolean colorResetCodes = ChatMessages.colorResetCodes;
+		
+		/**
+		 * The parsed components, or null if the string must be parsed completely every time, e.g. because an expression is used inside a tag.
+		 */
+		@Nullable
+		final List<MessageComponent> components;
+		
+		/**
+		 * For each component the parts of its text, i.e. constant Strings and the Integer indices of expressions, or null if the text is constant.
+		 */
+		@Nullable
+		final Object[][] texts;
+		
+		/**
+		 * JSON of the components, only used for simple strings
+		 */
+		@Nullable
+		volatile String json = null;
+		
+		MessageTemplate(final @Nullable List<MessageComponent> components, final @Nullable Object[][] texts) {
+			this.components = components;
+			this.texts = texts;
+		}
+		
+		boolean isValid() {
+			return codesVersion == ChatMessages.getCodesVersion() && linkParseMode == ChatMessages.linkParseMode && colorResetCodes == ChatMessages.colorResetCodes;
+		}
+		
+	}
+	
+	@Nullable
+	private volatile MessageTemplate messageTemplate = null;
+	
 	/**
 	 * Creates a new VariableString which does not contain variables.
 	 * @param s Content for string.
@@ -437,6 +486,13 @@ public class VariableString implements Expression<String> {
 	 * @return The input string with all expressions replaced.
 	 */
 	public String toUnformattedString(final Event e) {
+		return toUnformattedString(e, null);
+	}
+	
+	/**
+	 * @param values If not null, the string of each expression is stored in this array at the index of the expression
+	 */
+	private String toUnformattedString(final Event e, final @Nullable String[] values) {
 		if (isSimple) {
 			assert simpleUnformatted != null;
 			return simpleUnformatted;
@@ -446,9 +502,10 @@ public class VariableString implements Expression<String> {
 		final StringBuilder b = new StringBuilder();
 		for (int i = 0; i < string.length; i++) {
 			final Object o = string[i];
+			final String s;
 			if (o instanceof Expression<?>) {
 				assert mode != StringMode.MESSAGE;
-				b.append(Classes.toString(((Expression<?>) o).getArray(e), true, mode));
+				s = Classes.toString(((Expression<?>) o).getArray(e), true, mode);
 			} else if (o instanceof ExpressionInfo) {
 				assert mode == StringMode.MESSAGE;
 				final ExpressionInfo info = (ExpressionInfo) o;
@@ -456,26 +513,122 @@ public class VariableString implements Expression<String> {
 				if ((flags & Language.F_PLURAL) == 0 && b.length() > 0 && Math.abs(StringUtils.numberBefore(b, b.length() - 1)) != 1)
 					flags |= Language.F_PLURAL;
 				if (info.toChatStyle) {
-					final String s = Classes.toString(info.expr.getArray(e), flags, null);
-					final String style = Utils.getChatStyle(s);
-					b.append(style == null ? "<" + s + ">" : style);
+					final String v = Classes.toString(info.expr.getArray(e), flags, null);
+					final String style = Utils.getChatStyle(v);
+					s = style == null ? "<" + v + ">" : style;
 				} else {
-					b.append(Classes.toString(info.expr.getArray(e), flags, null));
+					s = Classes.toString(info.expr.getArray(e), flags, null);
 				}
 			} else {
 				b.append(o);
+				continue;
 			}
+			if (values != null)
+				values[i] = s;
+			b.append(s);
 		}
 		return "" + b.toString();
 	}
 	
+	/**
+	 * Parses this string into chat components. Constant text is only parsed once, so the returned components may be shared between calls and must
+	 * not be modified.
+	 * 
+	 * @param e Event to pass to the expressions.
+	 * @return The components of the string with all expressions replaced.
+	 */
 	public List<MessageComponent> getMessageComponents(final Event e) {
+		final MessageTemplate template = getMessageTemplate();
+		final List<MessageComponent> components = template.components;
+		final Object[][] texts = template.texts;
 		if (isSimple) {
-			assert simpleUnformatted != null;
-			return ChatMessages.parse(simpleUnformatted);
+			assert components != null;
+			return components;
 		}
+		if (components == null || texts == null)
+			return ChatMessages.parse(toUnformattedString(e));
 		
-		return ChatMessages.parse(toUnformattedString(e));
+		final Object[] string = stringUnformatted;
+		assert string != null;
+		final String[] values = new String[string.length];
+		final String s = toUnformattedString(e, values);
+		for (final String v : values) {
+			if (v != null && !ChatMessages.isPlainText(v)) // the value has to be parsed as well
+				return ChatMessages.parse(s);
+		}
+		final MessageComponent[] r = new MessageComponent[texts.length];
+		final StringBuilder b = new StringBuilder();
+		for (int i = 0; i < r.length; i++) {
+			final Object[] text = texts[i];
+			if (text == null) {
+				r[i] = components.get(i);
+				continue;
+			}
+			b.setLength(0);
+			for (final Object t : text)
+				b.append(t instanceof Integer ? values[(Integer) t] : t);
+			r[i] = components.get(i).copy();
+			r[i].text = "" + b.toString();
+		}
+		return Arrays.asList(r);
+	}
+	
+	private MessageTemplate getMessageTemplate() {
+		MessageTemplate template = messageTemplate;
+		if (template == null || !template.isValid())
+			messageTemplate = template = createMessageTemplate();
+		return template;
+	}
+	
+	@SuppressWarnings("null")
+	private MessageTemplate createMessageTemplate() {
+		if (isSimple) {
+			assert simpleUnformatted != null;
+			return new MessageTemplate(Collections.unmodifiableList(ChatMessages.parse(simpleUnformatted)), null);
+		}
+		final Object[] string = stringUnformatted;
+		assert string != null;
+		// links may span multiple parts of the string
+		if (ChatMessages.linkParseMode != LinkParseMode.DISABLED || string.length > MAX_PLACEHOLDERS)
+			return new MessageTemplate(null, null);
+		final StringBuilder b = new StringBuilder();
+		for (int i = 0; i < string.length; i++) {
+			final Object o = string[i];
+			if (o instanceof String) {
+				final String s = (String) o;
+				if (!ChatMessages.isSelfContained(s))
+					return new MessageTemplate(null, null);
+				for (int j = 0; j < s.length(); j++) {
+					if (s.charAt(j) >= PLACEHOLDER && s.charAt(j) < PLACEHOLDER + MAX_PLACEHOLDERS)
+						return new MessageTemplate(null, null);
+				}
+				b.append(s);
+			} else {
+				b.append((char) (PLACEHOLDER + i));
+			}
+		}
+		final List<MessageComponent> components = ChatMessages.parse(b.toString());
+		final Object[][] texts = new Object[components.size()][];
+		for (int i = 0; i < texts.length; i++) {
+			final String text = components.get(i).text;
+			final List<Object> parts = new ArrayList<>();
+			int start = 0;
+			for (int j = 0; j < text.length(); j++) {
+				final char c = text.charAt(j);
+				if (c < PLACEHOLDER || c >= PLACEHOLDER + MAX_PLACEHOLDERS)
+					continue;
+				if (j != start)
+					parts.add(text.substring(start, j));
+				parts.add(c - PLACEHOLDER);
+				start = j + 1;
+			}
+			if (start == 0) // constant text
+				continue;
+			if (start != text.length())
+				parts.add(text.substring(start));
+			texts[i] = parts.toArray();
+		}
+		return new MessageTemplate(components, texts);
 	}
 	
 	/**
@@ -485,6 +638,15 @@ public class VariableString implements Expression<String> {
 	 * @return The input string with all expressions replaced.
 	 */
 	public String toChatString(final Event e) {
+		if (isSimple) {
+			final MessageTemplate template = getMessageTemplate();
+			String json = template.json;
+			if (json == null) {
+				assert template.components != null;
+				template.json = json = ChatMessages.toJson(template.components);
+			}
+			return json;
+		}
 		return ChatMessages.toJson(getMessageComponents(e));
 	}
 	
@@ -682,8 +844,24 @@ public class VariableString implements Expression<String> {
 		return e;
 	}
 	
+	/**
+	 * Simplifies the expressions embedded in this string. The string itself is not converted to a literal as other elements depend on it being a
+	 * VariableString, and as the string representation of values may change at runtime, e.g. when the language is changed.
+	 */
 	@Override
 	public Expression<String> simplify() {
+		final Object[] string = this.string, stringUnformatted = this.stringUnformatted;
+		if (string == null || stringUnformatted == null)
+			return this;
+		for (int i = 0; i < string.length; i++) {
+			final Object o = string[i];
+			if (o instanceof ExpressionInfo) { // shared by both arrays
+				final ExpressionInfo info = (ExpressionInfo) o;
+				info.expr = info.expr.simplify();
+			} else if (o instanceof Expression) {
+				string[i] = stringUnformatted[i] = ((Expression<?>) o).simplify();
+			}
+		}
 		return this;
 	}
 	
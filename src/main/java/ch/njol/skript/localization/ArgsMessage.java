@@ -21,30 +21,66 @@ package ch.njol.skript.localization;
 
 import ch.njol.skript.Skript;
 
+import javax.annotation.Nullable;
 import java.util.IllegalFormatException;
 
 public final class ArgsMessage extends Message {
 	
+	@Nullable
+	private MessageFormatter formatter = null;
+	
 	public ArgsMessage(final String key) {
 		super(key);
 	}
 	
+	@Override
+	protected void onValueChange() {
+		final String val = getValue();
+		formatter = val == null ? null : MessageFormatter.compile(val);
+	}
+	
 	@Override
 	public String toString() {
 		throw new UnsupportedOperationException();
 	}
 	
 	public String toString(final Object... args) {
+		validate();
+		final MessageFormatter f = formatter;
+		if (f == null)
+			return key;
+		try {
+			return f.format(args);
+		} catch (final IllegalFormatException e) {
+			return formatError(e);
+		}
+	}
+	
+	/**
+	 * Appends this message formatted with the given arguments to the given builder, which saves creating an intermediate string.
+	 */
+	public void appendTo(final StringBuilder b, final Object... args) {
+		validate();
+		final MessageFormatter f = formatter;
+		if (f == null) {
+			b.append(key);
+			return;
+		}
+		final int start = b.length();
 		try {
-			final String val = getValue();
-			return val == null ? key : "" + String.format(val, args);
+			f.appendTo(b, args);
 		} catch (final IllegalFormatException e) {
-			final String m = "The formatted message '" + key + "' uses an illegal format: " + e.getLocalizedMessage();
-			Skript.adminBroadcast("<red>" + m);
-			System.err.println("[Skript] " + m);
-			e.printStackTrace();
-			return "[ERROR]";
+			b.setLength(start);
+			b.append(formatError(e));
 		}
 	}
 	
+	private String formatError(final IllegalFormatException e) {
+		final String m = "The formatted message '" + key + "' uses an illegal format: " + e.getLocalizedMessage();
+		Skript.adminBroadcast("<red>" + m);
+		System.err.println("[Skript] " + m);
+		e.printStackTrace();
+		return "[ERROR]";
+	}
+	
 }
@@ -21,6 +21,7 @@ package ch.njol.skript.localization;
 
 import ch.njol.skript.Skript;
 
+import javax.annotation.Nullable;
 import java.util.IllegalFormatException;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -28,6 +29,9 @@ public final class FormattedMessage extends Message {
 	
 	private final Object[] args;
 	
+	@Nullable
+	private MessageFormatter formatter = null;
+	
 	/**
 	 * @param key
 	 * @param args An array of Objects to replace into the format message, e.g. {@link AtomicReference}s.
@@ -38,11 +42,20 @@ public final class FormattedMessage extends Message {
 		this.args = args;
 	}
 	
+	@Override
+	protected void onValueChange() {
+		final String val = getValue();
+		formatter = val == null ? null : MessageFormatter.compile(val);
+	}
+	
 	@Override
 	public String toString() {
+		validate();
+		final MessageFormatter f = formatter;
+		if (f == null)
+			return key;
 		try {
-			final String val = getValue();
-			return val == null ? key : "" + String.format(val, args);
+			return f.format(args);
 		} catch (final IllegalFormatException e) {
 			final String m = "The formatted message '" + key + "' uses an illegal format: " + e.getLocalizedMessage();
 			Skript.adminBroadcast("<red>" + m);
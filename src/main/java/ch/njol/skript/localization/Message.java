@@ -57,7 +57,11 @@ public class Message {
 	public final String key;
 	@Nullable
 	private String value;
-	boolean revalidate = true;
+	volatile boolean revalidate = true;
+	/**
+	 * Whether this message is currently being revalidated, in which case {@link #onValueChange()} may already use the new value.
+	 */
+	private boolean validating = false;
 	
 	public Message(final String key) {
 		this.key = "" + key.toLowerCase(Locale.ENGLISH);
@@ -100,12 +104,23 @@ public class Message {
 	
 	/**
 	 * Checks whether this message's value has changed and calls {@link #onValueChange()} if neccessary.
+	 * <p>
+	 * Only synchronises if the language has changed, as this is called whenever a message is used.
 	 */
-	protected synchronized void validate() {
-		if (revalidate) {
+	protected void validate() {
+		if (!revalidate)
+			return;
+		synchronized (this) {
+			if (!revalidate || validating)
+				return;
+			validating = true;
+			try {
+				value = Language.get_(key);
+				onValueChange();
+			} finally {
+				validating = false;
+			}
 			revalidate = false;
-			value = Language.get_(key);
-			onValueChange();
 		}
 	}
 	
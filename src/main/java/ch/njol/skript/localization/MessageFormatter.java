@@ -0,0 +1,157 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ * Copyright 2011-2017 Peter Güttinger and contributors
+ */
+package ch.njol.skript.localization;
+
+import javax.annotation.Nullable;
+import java.text.DecimalFormatSymbols;
+import java.util.ArrayList;
+import java.util.Formattable;
+import java.util.IllegalFormatException;
+import java.util.List;
+import java.util.Locale;
+import java.util.MissingFormatArgumentException;
+
+/**
+ * A format string from a language file, compiled once so that it can be formatted repeatedly without parsing it again.
+ * <p>
+ * Supports the part of {@link String#format(String, Object...)} that is used by language files: <tt>%s</tt> and <tt>%d</tt>, optionally with an
+ * argument index like <tt>%2$s</tt>, as well as <tt>%%</tt> and <tt>%n</tt>. Format strings that use anything else, as well as arguments that
+ * <tt>%s</tt> and <tt>%d</tt> can't simply append (e.g. {@link Formattable}s), are passed to {@link String#format(String, Object...)} instead.
+ */
+final class MessageFormatter {
+	
+	/**
+	 * Whether <tt>%d</tt> formats numbers with ASCII digits in the default locale. If not, <tt>%d</tt> is left to {@link String#format(String, Object...)}.
+	 */
+	private final static boolean asciiDigits = new DecimalFormatSymbols(Locale.getDefault(Locale.Category.FORMAT)).getZeroDigit() == '0';
+	
+	private final String format;
+	
+	/**
+	 * The format split into literal text (Strings) and arguments (Integers, the argument's index shifted left by one, with the lowest bit set for <tt>%d</tt>).
+	 * <tt>null</tt> if the format cannot be compiled.
+	 */
+	@Nullable
+	private final Object[] parts;
+	
+	private MessageFormatter(final String format, final @Nullable Object[] parts) {
+		this.format = format;
+		this.parts = parts;
+	}
+	
+	public static MessageFormatter compile(final String format) {
+		return new MessageFormatter(format, parse(format));
+	}
+	
+	@Nullable
+	private static Object[] parse(final String format) {
+		final List<Object> parts = new ArrayList<>();
+		final StringBuilder literal = new StringBuilder();
+		int nextArg = 0;
+		for (int i = 0; i < format.length(); i++) {
+			final char c = format.charAt(i);
+			if (c != '%') {
+				literal.append(c);
+				continue;
+			}
+			if (++i == format.length())
+				return null;
+			int arg = -1;
+			int j = i;
+			while (j < format.length() && '0' <= format.charAt(j) && format.charAt(j) <= '9')
+				j++;
+			if (j != i && j < format.length() && format.charAt(j) == '$') {
+				if (j - i > 5)
+					return null;
+				arg = Integer.parseInt(format.substring(i, j)) - 1;
+				if (arg < 0)
+					return null;
+				i = j + 1;
+				if (i == format.length())
+					return null;
+			}
+			final char conversion = format.charAt(i);
+			if (conversion == '%' || conversion == 'n') {
+				if (arg != -1)
+					return null;
+				literal.append(conversion == '%' ? "%" : System.lineSeparator());
+				continue;
+			}
+			if (conversion != 's' && !(conversion == 'd' && asciiDigits))
+				return null;
+			if (arg == -1)
+				arg = nextArg++;
+			if (literal.length() != 0) {
+				parts.add(literal.toString());
+				literal.setLength(0);
+			}
+			parts.add(arg << 1 | (conversion == 'd' ? 1 : 0));
+		}
+		if (literal.length() != 0)
+			parts.add(literal.toString());
+		return parts.toArray();
+	}
+	
+	/**
+	 * Appends this format with the given arguments to the given builder.
+	 * 
+	 * @throws IllegalFormatException Like {@link String#format(String, Object...)}, e.g. if there are too few arguments.
+	 */
+	public void appendTo(final StringBuilder b, final Object... args) {
+		final Object[] parts = this.parts;
+		if (parts == null) {
+			b.append(String.format(format, args));
+			return;
+		}
+		final int start = b.length();
+		for (final Object part : parts) {
+			if (part instanceof String) {
+				b.append((String) part);
+				continue;
+			}
+			final int p = (Integer) part;
+			final int arg = p >>> 1;
+			if (arg >= args.length)
+				throw new MissingFormatArgumentException("argument " + (arg + 1));
+			final Object o = args[arg];
+			if ((p & 1) != 0 ? !(o instanceof Integer || o instanceof Long || o instanceof Short || o instanceof Byte) : o instanceof Formattable) {
+				// let String.format handle (or reject) this argument
+				b.setLength(start);
+				b.append(String.format(format, args));
+				return;
+			}
+			b.append(o);
+		}
+	}
+	
+	/**
+	 * @return This format with the given arguments, like {@link String#format(String, Object...)}
+	 * @throws IllegalFormatException Like {@link String#format(String, Object...)}, e.g. if there are too few arguments.
+	 */
+	public String format(final Object... args) {
+		final Object[] parts = this.parts;
+		if (parts != null && parts.length == 1 && parts[0] instanceof String)
+			return (String) parts[0];
+		final StringBuilder b = new StringBuilder(format.length() + 16 * args.length);
+		appendTo(b, args);
+		return "" + b;
+	}
+	
+}
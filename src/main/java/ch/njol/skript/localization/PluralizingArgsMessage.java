@@ -21,6 +21,8 @@ package ch.njol.skript.localization;
 
 import ch.njol.util.StringUtils;
 
+import javax.annotation.Nullable;
+
 /**
  * An {@link ArgsMessage} that pluralises words following numbers. The plurals have to be in the format <tt>shel¦f¦ves¦</tt> (i.e. use 3 '¦'s).
  * 
@@ -28,15 +30,25 @@ import ch.njol.util.StringUtils;
  */
 public class PluralizingArgsMessage extends Message {
 	
+	@Nullable
+	private MessageFormatter formatter = null;
+	
 	public PluralizingArgsMessage(final String key) {
 		super(key);
 	}
 	
-	public String toString(final Object... args) {
+	@Override
+	protected void onValueChange() {
 		final String val = getValue();
-		if (val == null)
+		formatter = val == null ? null : MessageFormatter.compile(val);
+	}
+	
+	public String toString(final Object... args) {
+		validate();
+		final MessageFormatter f = formatter;
+		if (f == null)
 			return key;
-		return format("" + String.format(val, args));
+		return format(f.format(args));
 	}
 	
 	public final static String format(final String s) {
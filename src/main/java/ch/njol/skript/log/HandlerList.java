@@ -20,15 +20,15 @@
 package ch.njol.skript.log;
 
 import javax.annotation.Nullable;
+import java.util.ArrayDeque;
 import java.util.Iterator;
-import java.util.LinkedList;
 
 /**
  * @author Peter Güttinger
  */
 public class HandlerList implements Iterable<LogHandler> {
 	
-	private final LinkedList<LogHandler> list = new LinkedList<>();
+	private final ArrayDeque<LogHandler> list = new ArrayDeque<>();
 	
 	public void add(final LogHandler h) {
 		list.addFirst(h);
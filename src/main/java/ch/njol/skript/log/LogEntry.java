@@ -73,7 +73,7 @@ public class LogEntry {
 		this.message = message;
 		this.node = node;
 		this.tracked = tracked;
-		from = tracked || Skript.debug() ? findCaller() : "";
+		from = tracked || SkriptLogger.isTrackingCallers() ? findCaller() : "";
 	}
 	
 	private final static String skriptLogPackageName = "" + SkriptLogger.class.getPackage().getName();
@@ -107,6 +107,23 @@ public class LogEntry {
 	
 	private boolean used = false;
 	
+	/**
+	 * @return Whether this entry reports when it is logged or discarded. Callers of {@link #discarded(String)} can use this to avoid building the
+	 *         reason if it won't be used.
+	 */
+	boolean isTracked() {
+		return tracked;
+	}
+	
+	/**
+	 * Marks this entry as discarded without reporting it. Only to be used for entries that are not {@link #isTracked() tracked}, so that callers don't
+	 * have to build a reason which would not be used anyway.
+	 */
+	void markDiscarded() {
+		assert !tracked;
+		used = true;
+	}
+	
 	void discarded(final String info) {
 		used = true;
 		if (tracked)
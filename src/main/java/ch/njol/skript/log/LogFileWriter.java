@@ -0,0 +1,317 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ * Copyright 2011-2017 Peter Güttinger and contributors
+ */
+package ch.njol.skript.log;
+
+import ch.njol.skript.SkriptConfig;
+import ch.njol.skript.util.ExceptionUtils;
+import ch.njol.skript.util.Timespan;
+import ch.njol.util.Closeable;
+
+import javax.annotation.Nullable;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Appends lines to log files on a background thread, so that scripts which log a lot don't block the server with file I/O.
+ * <p>
+ * Lines are put into a bounded lock-free ring buffer by any number of threads, and a single writer thread regularly appends all queued lines to their
+ * files, flushing each file once per batch. If the buffer is full, lines are dropped and counted, and a warning with the number of dropped lines is
+ * printed when the writer catches up.
+ * <p>
+ * Files are rotated if they grow larger than {@link SkriptConfig#maxLogFileSize} or have been written to for longer than
+ * {@link SkriptConfig#logFileRotationInterval}: the current file is renamed to include the current date and a new file is started.
+ */
+public class LogFileWriter implements Closeable {
+	
+	/**
+	 * The number of lines that can be queued, must be a power of two.
+	 */
+	public final static int CAPACITY = 1 << 14;
+	
+	/**
+	 * How long the writer waits for more lines before writing them.
+	 */
+	private final static long WRITE_INTERVAL = TimeUnit.MILLISECONDS.toNanos(200);
+	
+	private final static class Line {
+		final String file;
+		final long time;
+		final String message;
+		
+		Line(final String file, final long time, final String message) {
+			this.file = file;
+			this.time = time;
+			this.message = message;
+		}
+	}
+	
+	private final static class OpenFile {
+		final File file;
+		final Writer writer;
+		final long opened;
+		long size;
+		boolean closed = false;
+		
+		OpenFile(final File file) throws IOException {
+			this.file = file;
+			size = file.length();
+			opened = System.currentTimeMillis();
+			writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file, true), StandardCharsets.UTF_8));
+		}
+	}
+	
+	private final File folder;
+	
+	private final AtomicReferenceArray<Line> buffer = new AtomicReferenceArray<>(CAPACITY);
+	/**
+	 * The index of the next line to claim. Slots are claimed by incrementing this, and published by setting the slot.
+	 */
+	private final AtomicLong tail = new AtomicLong();
+	/**
+	 * The index of the next line to write. Only changed by the writer thread.
+	 */
+	private volatile long head = 0;
+	
+	private final AtomicLong dropped = new AtomicLong();
+	
+	// only accessed by the writer thread
+	private long reportedDropped = 0;
+	private final Map<String, OpenFile> files = new HashMap<>();
+	private final Set<String> failedFiles = new HashSet<>();
+	
+	@Nullable
+	private volatile Thread thread = null;
+	private volatile boolean closed = false;
+	
+	/**
+	 * @param folder The folder file names are relative to
+	 */
+	public LogFileWriter(final File folder) {
+		this.folder = folder;
+	}
+	
+	/**
+	 * Queues a line to be written to the given file. Can be called from any thread.
+	 * 
+	 * @param file The file's path relative to this writer's folder
+	 * @param message The line to append, will be prefixed with the current date
+	 * @return Whether the line was queued, false if too many lines are waiting to be written or this writer is closed.
+	 */
+	public boolean write(final String file, final String message) {
+		if (closed) {
+			dropped.incrementAndGet();
+			return false;
+		}
+		final Line line = new Line(file, System.currentTimeMillis(), message);
+		while (true) {
+			final long t = tail.get();
+			if (t - head >= CAPACITY) {
+				dropped.incrementAndGet();
+				return false;
+			}
+			if (tail.compareAndSet(t, t + 1)) {
+				buffer.set((int) t & (CAPACITY - 1), line);
+				break;
+			}
+		}
+		if (thread == null)
+			start();
+		return true;
+	}
+	
+	private synchronized void start() {
+		if (thread != null || closed)
+			return;
+		final Thread t = new Thread("Skript log file writer") {
+			@Override
+			public void run() {
+				while (!closed) {
+					LockSupport.parkNanos(this, WRITE_INTERVAL);
+					writeQueued();
+				}
+				writeQueued();
+				for (final OpenFile f : files.values())
+					closeQuietly(f);
+				files.clear();
+			}
+		};
+		t.setDaemon(true);
+		t.start();
+		thread = t;
+	}
+	
+	/**
+	 * @return The number of lines that have not been written because too many lines were queued at once
+	 */
+	public long getDropped() {
+		return dropped.get();
+	}
+	
+	/**
+	 * @return The number of lines that are waiting to be written
+	 */
+	public int getQueued() {
+		return (int) (tail.get() - head);
+	}
+	
+	/**
+	 * Writes all published lines, grouped by file. Must only be called by the writer thread.
+	 */
+	void writeQueued() {
+		final Set<OpenFile> written = new HashSet<>();
+		long h = head;
+		while (true) {
+			final int i = (int) h & (CAPACITY - 1);
+			final Line line = buffer.get(i);
+			if (line == null) // either nothing left or a slot that has been claimed but not yet published
+				break;
+			buffer.set(i, null);
+			head = ++h;
+			final OpenFile f = getFile(line);
+			if (f == null)
+				continue;
+			final String s = "[" + SkriptConfig.formatDate(line.time) + "] " + line.message + System.lineSeparator();
+			try {
+				f.writer.write(s);
+				f.size += s.length();
+				written.add(f);
+			} catch (final IOException e) {
+				error("Cannot write to log file '" + line.file + "'", e);
+			}
+		}
+		for (final OpenFile f : written) {
+			if (f.closed) // rotated within this batch
+				continue;
+			try {
+				f.writer.flush();
+			} catch (final IOException e) {
+				error("Cannot write to log file '" + f.file.getPath() + "'", e);
+			}
+		}
+		final long d = dropped.get();
+		if (d != reportedDropped) {
+			SkriptLogger.LOGGER.warning("[Skript] " + (d - reportedDropped) + " lines could not be written to log files because too many lines were logged at once");
+			reportedDropped = d;
+		}
+	}
+	
+	/**
+	 * Gets the open file for the given line, opening or rotating it if required.
+	 * 
+	 * @return The file, or null if it cannot be opened
+	 */
+	@Nullable
+	private OpenFile getFile(final Line line) {
+		OpenFile f = files.get(line.file);
+		if (f != null && needsRotation(f, line.time)) {
+			files.remove(line.file);
+			closeQuietly(f);
+			rotate(f.file);
+			f = null;
+		}
+		if (f == null) {
+			final File file = new File(folder, line.file);
+			try {
+				file.getParentFile().mkdirs();
+				f = new OpenFile(file);
+				failedFiles.remove(line.file);
+			} catch (final IOException e) {
+				if (failedFiles.add(line.file))
+					error("Cannot write to log file '" + line.file + "' (" + file.getPath() + ")", e);
+				return null;
+			}
+			files.put(line.file, f);
+		}
+		return f;
+	}
+	
+	private static boolean needsRotation(final OpenFile f, final long now) {
+		final long maxSize = SkriptConfig.maxLogFileSize.value() * 1024L;
+		if (maxSize > 0 && f.size >= maxSize)
+			return true;
+		final long interval = SkriptConfig.logFileRotationInterval.value().getMilliSeconds();
+		return interval > 0 && now - f.opened >= interval;
+	}
+	
+	/**
+	 * Renames the given file to include the current date, e.g. <tt>tnt/placement.log</tt> to <tt>tnt/placement-2017-08-31_12-00-00.log</tt>.
+	 */
+	private void rotate(final File file) {
+		final String name = file.getName();
+		final int dot = name.lastIndexOf('.');
+		final String base = (dot == -1 ? name : name.substring(0, dot)) + "-" + new SimpleDateFormat("yyyy-MM-dd_HH-mm-ss").format(new Date());
+		final String extension = dot == -1 ? "" : name.substring(dot);
+		File target = new File(file.getParentFile(), base + extension);
+		for (int i = 2; target.exists(); i++)
+			target = new File(file.getParentFile(), base + "-" + i + extension);
+		if (!file.renameTo(target))
+			SkriptLogger.LOGGER.severe("[Skript] Cannot rotate log file '" + file.getPath() + "'");
+	}
+	
+	private static void closeQuietly(final OpenFile f) {
+		f.closed = true;
+		try {
+			f.writer.close();
+		} catch (final IOException e) {
+			error("Cannot close log file '" + f.file.getPath() + "'", e);
+		}
+	}
+	
+	private static void error(final String message, final IOException e) {
+		// Skript.error() must not be used outside of the main thread
+		SkriptLogger.LOGGER.severe("[Skript] " + message + ": " + ExceptionUtils.toString(e));
+	}
+	
+	/**
+	 * Writes all queued lines and closes all files. Lines written after this are dropped.
+	 */
+	@Override
+	public void close() {
+		final Thread t;
+		synchronized (this) {
+			closed = true;
+			t = thread;
+		}
+		if (t == null)
+			return;
+		LockSupport.unpark(t);
+		try {
+			t.join(TimeUnit.SECONDS.toMillis(10));
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+	
+}
@@ -34,7 +34,11 @@ public class ParseLogHandler extends LogHandler {
 	@Nullable
 	private LogEntry error = null;
 	
-	private final List<LogEntry> log = new ArrayList<LogEntry>();
+	/**
+	 * Messages other than errors. Most parse logs never receive any, thus the list is only created when needed.
+	 */
+	@Nullable
+	private List<LogEntry> log = null;
 	
 	@Override
 	public LogResult log(final LogEntry entry) {
@@ -42,10 +46,15 @@ public class ParseLogHandler extends LogHandler {
 			final LogEntry e = error;
 			if (e == null || entry.getQuality() > e.getQuality()) {
 				error = entry;
-				if (e != null)
+				if (e != null && e.isTracked())
 					e.discarded("overridden by '" + entry.getMessage() + "' (" + ErrorQuality.get(entry.getQuality()) + " > " + ErrorQuality.get(e.getQuality()) + ")");
+				else if (e != null)
+					e.markDiscarded();
 			}
 		} else {
+			List<LogEntry> log = this.log;
+			if (log == null)
+				this.log = log = new ArrayList<LogEntry>(2);
 			log.add(entry);
 		}
 		return LogResult.CACHED;
@@ -59,7 +68,13 @@ public class ParseLogHandler extends LogHandler {
 			SkriptLogger.LOGGER.warning("Parse log wasn't instructed to print anything at " + SkriptLogger.getCaller());
 	}
 	
+	/**
+	 * Logs an error. Does not create a log entry at all if a better error has already been logged.
+	 */
 	public void error(final String error, final ErrorQuality quality) {
+		final LogEntry e = this.error;
+		if (e != null && e.getQuality() >= quality.quality())
+			return;
 		log(new LogEntry(SkriptLogger.SEVERE, quality, error));
 	}
 	
@@ -67,6 +82,9 @@ public class ParseLogHandler extends LogHandler {
 	 * Clears all log messages except for the error
 	 */
 	public void clear() {
+		final List<LogEntry> log = this.log;
+		if (log == null)
+			return;
 		for (final LogEntry e : log)
 			e.discarded("cleared");
 		log.clear();
@@ -78,7 +96,9 @@ public class ParseLogHandler extends LogHandler {
 	public void printLog() {
 		printedErrorOrLog = true;
 		stop();
-		SkriptLogger.logAll(log);
+		final List<LogEntry> log = this.log;
+		if (log != null)
+			SkriptLogger.logAll(log);
 		if (error != null)
 			error.discarded("not printed");
 	}
@@ -100,8 +120,7 @@ public class ParseLogHandler extends LogHandler {
 			SkriptLogger.log(error);
 		else if (def != null)
 			SkriptLogger.log(new LogEntry(SkriptLogger.SEVERE, ErrorQuality.SEMANTIC_ERROR, def));
-		for (final LogEntry e : log)
-			e.discarded("not printed");
+		discardLog();
 	}
 	
 	public void printError(final String def, final ErrorQuality quality) {
@@ -112,6 +131,13 @@ public class ParseLogHandler extends LogHandler {
 			SkriptLogger.log(error);
 		else
 			SkriptLogger.log(new LogEntry(SkriptLogger.SEVERE, quality, def));
+		discardLog();
+	}
+	
+	private void discardLog() {
+		final List<LogEntry> log = this.log;
+		if (log == null)
+			return;
 		for (final LogEntry e : log)
 			e.discarded("not printed");
 	}
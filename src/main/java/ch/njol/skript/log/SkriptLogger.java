@@ -44,6 +44,8 @@ public abstract class SkriptLogger {
 	
 	static boolean debug;
 	
+	private static boolean trackCallers = false;
+	
 	@SuppressWarnings("null")
 	public final static Level DEBUG = Level.INFO; // CraftBukkit 1.7+ uses the worst logging library I've ever encountered
 //			new Level("DEBUG", Level.INFO.intValue()) {
@@ -174,7 +176,10 @@ public abstract class SkriptLogger {
 				case CACHED:
 					return;
 				case DO_NOT_LOG:
-					entry.discarded("denied by " + h);
+					if (entry.isTracked())
+						entry.discarded("denied by " + h);
+					else
+						entry.markDiscarded();
 					return;
 				case LOG:
 					continue;
@@ -210,4 +215,18 @@ public abstract class SkriptLogger {
 		return debug;
 	}
 	
+	/**
+	 * Sets whether log entries record which code logged them. This requires a stack trace for every log entry, which is far too expensive to do by
+	 * default as a lot of errors are logged and discarded while parsing scripts.
+	 * 
+	 * @param track
+	 */
+	public static void setTrackCallers(final boolean track) {
+		trackCallers = track;
+	}
+	
+	public static boolean isTrackingCallers() {
+		return trackCallers;
+	}
+	
 }
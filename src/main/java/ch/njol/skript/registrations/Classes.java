@@ -29,12 +29,13 @@ import ch.njol.skript.classes.Parser;
 import ch.njol.skript.classes.Serializer;
 import ch.njol.skript.lang.DefaultExpression;
 import ch.njol.skript.lang.ParseContext;
-import ch.njol.skript.localization.Language;
+import ch.njol.skript.localization.Message;
 import ch.njol.skript.log.ParseLogHandler;
 import ch.njol.skript.log.SkriptLogger;
 import ch.njol.skript.util.StringMode;
 import ch.njol.skript.variables.DatabaseStorage;
 import ch.njol.skript.variables.SerializedVariable;
+import ch.njol.skript.variables.VariableCodecs;
 import ch.njol.skript.variables.Variables;
 import ch.njol.util.Kleenean;
 import ch.njol.util.StringUtils;
@@ -51,6 +52,7 @@ import javax.annotation.Nullable;
 import java.io.*;
 import java.nio.charset.Charset;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 
 /**
@@ -64,7 +66,7 @@ public abstract class Classes {
 	private static ClassInfo<?>[] classInfos = null;
 	private final static List<ClassInfo<?>> tempClassInfos = new ArrayList<ClassInfo<?>>();
 	private final static HashMap<Class<?>, ClassInfo<?>> exactClassInfos = new HashMap<Class<?>, ClassInfo<?>>();
-	private final static HashMap<Class<?>, ClassInfo<?>> superClassInfos = new HashMap<Class<?>, ClassInfo<?>>();
+	private final static Map<Class<?>, ClassInfo<?>> superClassInfos = new ConcurrentHashMap<Class<?>, ClassInfo<?>>();
 	private final static HashMap<String, ClassInfo<?>> classInfosByCodeName = new HashMap<String, ClassInfo<?>>();
 	
 	/**
@@ -564,13 +566,22 @@ public abstract class Classes {
 		return toString(o, mode, 0);
 	}
 	
+	/**
+	 * Caches the class info used to convert objects of a given class to strings in {@link #toString(Object, StringMode, int)}, or {@link #NO_PARSER}
+	 * if there is none.
+	 */
+	private final static Map<Class<?>, Object> toStringClassInfos = new ConcurrentHashMap<>();
+	private final static Object NO_PARSER = new Object();
+	
+	private final static Message m_none = new Message("none");
+	
 	private final static <T> String toString(final @Nullable T o, final StringMode mode, final int flags) {
 		assert flags == 0 || mode == StringMode.MESSAGE;
 		if (o == null)
-			return Language.get("none");
+			return m_none.toString();
 		if (o.getClass().isArray()) {
 			if (((Object[]) o).length == 0)
-				return Language.get("none");
+				return m_none.toString();
 			final StringBuilder b = new StringBuilder();
 			boolean first = true;
 			for (final Object i : (Object[]) o) {
@@ -581,19 +592,39 @@ public abstract class Classes {
 			}
 			return "[" + b.toString() + "]";
 		}
-		for (final ClassInfo<?> ci : getClassInfos()) {
+		final ClassInfo<?> ci = getToStringClassInfo(o.getClass());
+		if (ci != null) {
 			final Parser<?> parser = ci.getParser();
-			if (parser != null && ci.getC().isInstance(o)) {
-				@SuppressWarnings("unchecked")
-				final String s = mode == StringMode.MESSAGE ? ((Parser<T>) parser).toString(o, flags)
-						: mode == StringMode.DEBUG ? "[" + ci.getCodeName() + ":" + ((Parser<T>) parser).toString(o, mode) + "]"
-								: ((Parser<T>) parser).toString(o, mode);
-				return s;
-			}
+			assert parser != null;
+			@SuppressWarnings("unchecked")
+			final String s = mode == StringMode.MESSAGE ? ((Parser<T>) parser).toString(o, flags)
+					: mode == StringMode.DEBUG ? "[" + ci.getCodeName() + ":" + ((Parser<T>) parser).toString(o, mode) + "]"
+							: ((Parser<T>) parser).toString(o, mode);
+			return s;
 		}
 		return mode == StringMode.VARIABLE_NAME ? "object:" + o : "" + o;
 	}
 	
+	/**
+	 * @return The first class info with a parser that the given class is a subclass of, or null if there is none.
+	 */
+	@Nullable
+	private final static ClassInfo<?> getToStringClassInfo(final Class<?> c) {
+		final Object cached = toStringClassInfos.get(c);
+		if (cached != null)
+			return cached == NO_PARSER ? null : (ClassInfo<?>) cached;
+		ClassInfo<?> r = null;
+		for (final ClassInfo<?> ci : getClassInfos()) {
+			if (ci.getParser() != null && ci.getC().isAssignableFrom(c)) {
+				r = ci;
+				break;
+			}
+		}
+		if (!Skript.isAcceptRegistrations())
+			toStringClassInfos.put(c, r == null ? NO_PARSER : r);
+		return r;
+	}
+	
 	public final static String toString(final Object[] os, final int flags, final boolean and) {
 		return toString(os, and, null, StringMode.MESSAGE, flags);
 	}
@@ -638,7 +669,21 @@ public abstract class Classes {
 	@SuppressWarnings("null")
 	private final static Charset UTF_8 = Charset.forName("UTF-8");
 	
+	/**
+	 * Caches {@link #getYggdrasilStart(ClassInfo)}, which only depends on the class and its Yggdrasil ID, neither of which change after registration.
+	 */
+	private final static Map<Class<?>, byte[]> yggdrasilStarts = new ConcurrentHashMap<>();
+	
 	private final static byte[] getYggdrasilStart(final ClassInfo<?> c) throws NotSerializableException {
+		byte[] start = yggdrasilStarts.get(c.getC());
+		if (start == null) {
+			start = createYggdrasilStart(c);
+			yggdrasilStarts.put(c.getC(), start);
+		}
+		return start;
+	}
+	
+	private final static byte[] createYggdrasilStart(final ClassInfo<?> c) throws NotSerializableException {
 		assert Enum.class.isAssignableFrom(Kleenean.class) && Tag.getType(Kleenean.class) == Tag.T_ENUM : Tag.getType(Kleenean.class); // TODO why is this check here?
 		final Tag t = Tag.getType(c.getC());
 		assert t.isWrapper() || t == Tag.T_STRING || t == Tag.T_OBJECT || t == Tag.T_ENUM;
@@ -658,16 +703,24 @@ public abstract class Classes {
 	}
 	
 	/**
-	 * Must be called on the appropriate thread for the given value (i.e. the main thread currently)
+	 * @return Whether the given value can be serialised on any thread, see {@link Serializer#canBeSerializedAsync()}
+	 */
+	public final static boolean canBeSerializedAsync(final Object o) {
+		final ClassInfo<?> ci = getSuperClassInfo(o.getClass());
+		if (ci.getSerializeAs() != null) // the conversion may not be thread-safe
+			return false;
+		final Serializer<?> s = ci.getSerializer();
+		return s != null && s.canBeSerializedAsync();
+	}
+	
+	/**
+	 * Must be called on the appropriate thread for the given value, i.e. on Bukkit's main thread unless {@link #canBeSerializedAsync(Object)} returns true.
 	 */
 	@Nullable
 	public final static SerializedVariable.Value serialize(@Nullable Object o) {
 		if (o == null)
 			return null;
 		
-		// temporary
-		assert Bukkit.isPrimaryThread();
-		
 		@SuppressWarnings("null")
 		ClassInfo<?> ci = getSuperClassInfo(o.getClass());
 		if (ci.getSerializeAs() != null) {
@@ -687,31 +740,86 @@ public abstract class Classes {
 		if (s == null) // value cannot be saved
 			return null;
 		
+		assert Bukkit.isPrimaryThread() || s.canBeSerializedAsync() : o.getClass();
 		assert s.mustSyncDeserialization() ? Bukkit.isPrimaryThread() : true;
 		
+		final SerializedVariable.Value compact = VariableCodecs.encode(ci, o);
+		if (compact != null) {
+			Object d;
+			assert equals(o, d = VariableCodecs.decode(compact.type, compact.data)) : o + " (" + o.getClass() + ") != " + d + " (" + (d == null ? null : d.getClass()) + "): " + Arrays.toString(compact.data);
+			return compact;
+		}
+		
+		SerializationBuffer bout = serializationBuffers.get();
+		if (bout.inUse) // serialize() was called by a serializer
+			bout = new SerializationBuffer();
+		bout.inUse = true;
 		try {
-			final ByteArrayOutputStream bout = new ByteArrayOutputStream();
 			final YggdrasilOutputStream yout = Variables.yggdrasil.newOutputStream(bout);
 			yout.writeObject(o);
 			yout.flush();
 			yout.close();
-			final byte[] r = bout.toByteArray();
 			final byte[] start = getYggdrasilStart(ci);
-			for (int i = 0; i < start.length; i++)
-				assert r[i] == start[i] : o + " (" + ci.getC().getName() + "); " + Arrays.toString(start) + ", " + Arrays.toString(r);
-			final byte[] r2 = new byte[r.length - start.length];
-			System.arraycopy(r, start.length, r2, 0, r2.length);
+			assert bout.startsWith(start) : o + " (" + ci.getC().getName() + "); " + Arrays.toString(start) + ", " + Arrays.toString(bout.toByteArray());
+			final byte[] r = bout.toByteArray(start.length);
 			
 			Object d;
-			assert equals(o, d = deserialize(ci, new ByteArrayInputStream(r2))) : o + " (" + o.getClass() + ") != " + d + " (" + (d == null ? null : d.getClass()) + "): " + Arrays.toString(r);
+			assert equals(o, d = deserialize(ci, r)) : o + " (" + o.getClass() + ") != " + d + " (" + (d == null ? null : d.getClass()) + "): " + Arrays.toString(r);
 			
-			return new SerializedVariable.Value(ci.getCodeName(), r2);
+			return new SerializedVariable.Value(ci.getCodeName(), r);
 		} catch (final IOException e) { // shouldn't happen
 			Skript.exception(e);
 			return null;
+		} finally {
+			bout.inUse = false;
+			bout.reset();
+		}
+	}
+	
+	/**
+	 * A buffer for {@link #serialize(Object)} that is reused by the thread that created it, so that serialising a value only allocates the
+	 * resulting array. Buffers that grew very large for a single value are shrunk again on the next reset.
+	 */
+	private final static class SerializationBuffer extends ByteArrayOutputStream {
+		
+		private final static int INITIAL_SIZE = 256, MAX_RETAINED_SIZE = 1 << 16;
+		
+		boolean inUse = false;
+		
+		SerializationBuffer() {
+			super(INITIAL_SIZE);
+		}
+		
+		boolean startsWith(final byte[] start) {
+			if (count < start.length)
+				return false;
+			for (int i = 0; i < start.length; i++) {
+				if (buf[i] != start[i])
+					return false;
+			}
+			return true;
+		}
+		
+		/**
+		 * @return A copy of the contents of this buffer without the first <tt>offset</tt> bytes
+		 */
+		@SuppressWarnings("null")
+		byte[] toByteArray(final int offset) {
+			return Arrays.copyOfRange(buf, offset, count);
 		}
+		
+		@Override
+		public void reset() {
+			super.reset();
+			if (buf.length > MAX_RETAINED_SIZE)
+				buf = new byte[INITIAL_SIZE];
+		}
+		
 	}
 	
+	@SuppressWarnings("null")
+	private final static ThreadLocal<SerializationBuffer> serializationBuffers = ThreadLocal.withInitial(SerializationBuffer::new);
+	
 	private final static boolean equals(final @Nullable Object o, final @Nullable Object d) {
 		if (o instanceof Chunk) { // CraftChunk does neither override equals nor is it a "coordinate-specific singleton" like Block
 			if (!(d instanceof Chunk))
@@ -729,6 +837,8 @@ public abstract class Classes {
 	
 	@Nullable
 	public final static Object deserialize(final String type, final byte[] value) {
+		if (VariableCodecs.isCodecType(type))
+			return VariableCodecs.decode(type, value);
 		final ClassInfo<?> ci = getClassInfoNoError(type);
 		if (ci == null)
 			return null;
@@ -741,7 +851,7 @@ public abstract class Classes {
 		assert (s = type.getSerializer()) != null && (s.mustSyncDeserialization() ? Bukkit.isPrimaryThread() : true) : type + "; " + s + "; " + Bukkit.isPrimaryThread();
 		YggdrasilInputStream in = null;
 		try {
-			value = new SequenceInputStream(new ByteArrayInputStream(getYggdrasilStart(type)), value);
+			value = new HeaderInputStream(getYggdrasilStart(type), value);
 			in = Variables.yggdrasil.newInputStream(value);
 			return in.readObject();
 		} catch (final IOException e) { // i.e. invalid save
@@ -760,6 +870,47 @@ public abstract class Classes {
 		}
 	}
 	
+	/**
+	 * Prepends the Yggdrasil header that is omitted from serialised values. Unlike a {@link SequenceInputStream} of two {@link ByteArrayInputStream}s
+	 * this does not synchronise, which matters as Yggdrasil reads most of its input byte by byte.
+	 */
+	private final static class HeaderInputStream extends InputStream {
+		
+		private final byte[] header;
+		private int headerIndex = 0;
+		
+		private final InputStream in;
+		
+		HeaderInputStream(final byte[] header, final InputStream in) {
+			this.header = header;
+			this.in = in;
+		}
+		
+		@Override
+		public int read() throws IOException {
+			if (headerIndex < header.length)
+				return header[headerIndex++] & 0xFF;
+			return in.read();
+		}
+		
+		@Override
+		public int read(final byte[] b, final int off, final int len) throws IOException {
+			if (headerIndex < header.length) {
+				final int n = Math.min(len, header.length - headerIndex);
+				System.arraycopy(header, headerIndex, b, off, n);
+				headerIndex += n;
+				return n;
+			}
+			return in.read(b, off, len);
+		}
+		
+		@Override
+		public void close() throws IOException {
+			in.close();
+		}
+		
+	}
+	
 	/**
 	 * Deserialises an object.
 	 * <p>
@@ -20,11 +20,11 @@
 package ch.njol.skript.registrations;
 
 import ch.njol.skript.Skript;
-import ch.njol.skript.classes.ChainedConverter;
+import ch.njol.skript.classes.ComposedConverter;
 import ch.njol.skript.classes.Converter;
 import ch.njol.skript.classes.Converter.ConverterInfo;
 import ch.njol.skript.classes.Converter.ConverterUtils;
-import ch.njol.util.Pair;
+import ch.njol.util.coll.ClassPairCache;
 
 import javax.annotation.Nullable;
 import java.lang.reflect.Array;
@@ -78,35 +78,104 @@ public abstract class Converters {
 		registerConverter(from, to, (Converter<F, T>) converter, options);
 	}
 	
+	/**
+	 * Creates converters for all pairs of types that can only be converted into each other by chaining registered converters. The registered
+	 * converters are treated as edges of a graph of types which is searched breadth-first from the source type of every converter, thus the chain
+	 * found for a pair of types is a shortest one. Chains are added as flat {@link ComposedConverter}s.
+	 * <p>
+	 * In debug mode, chains that are not created because they are longer than the maximum length are logged.
+	 * 
+	 * @param maxLength The maximum number of registered converters to chain, or 0 or less for no limit
+	 */
 	// REMIND how to manage overriding of converters? - shouldn't actually matter
-	public static void createMissingConverters() {
-		for (int i = 0; i < converters.size(); i++) {
-			final ConverterInfo<?, ?> info = converters.get(i);
-			for (int j = 0; j < converters.size(); j++) {// not from j = i+1 since new converters get added during the loops
-				final ConverterInfo<?, ?> info2 = converters.get(j);
-				if ((info.options & Converter.NO_RIGHT_CHAINING) == 0 && (info2.options & Converter.NO_LEFT_CHAINING) == 0
-						&& info2.from.isAssignableFrom(info.to) && !converterExistsSlow(info.from, info2.to)) {
-					converters.add(createChainedConverter(info, info2));
-				} else if ((info.options & Converter.NO_LEFT_CHAINING) == 0 && (info2.options & Converter.NO_RIGHT_CHAINING) == 0
-						&& info.from.isAssignableFrom(info2.to) && !converterExistsSlow(info2.from, info.to)) {
-					converters.add(createChainedConverter(info2, info));
+	public static void createMissingConverters(final int maxLength) {
+		final int registered = converters.size();
+		final Set<Class<?>> sources = new LinkedHashSet<Class<?>>();
+		for (final ConverterInfo<?, ?> info : converters)
+			sources.add(info.from);
+		final Map<Class<?>, List<ConverterInfo<?, ?>>> edges = new HashMap<Class<?>, List<ConverterInfo<?, ?>>>();
+		for (final Class<?> source : sources) {
+			// all converters that make a chain from the source unnecessary if they exist, including the ones created for previous sources
+			final List<ConverterInfo<?, ?>> existing = new ArrayList<ConverterInfo<?, ?>>();
+			for (final ConverterInfo<?, ?> info : converters) {
+				if (info.from.isAssignableFrom(source) || source.isAssignableFrom(info.from))
+					existing.add(info);
+			}
+			final Set<Class<?>> found = new HashSet<Class<?>>();
+			final Set<Class<?>> expanded = new HashSet<Class<?>>();
+			found.add(source);
+			List<ConverterInfo<?, ?>[]> chains = new ArrayList<ConverterInfo<?, ?>[]>();
+			for (int i = 0; i < registered; i++) {
+				final ConverterInfo<?, ?> info = converters.get(i);
+				if (info.from != source)
+					continue;
+				found.add(info.to);
+				if ((info.options & Converter.NO_RIGHT_CHAINING) == 0 && expanded.add(info.to))
+					chains.add(new ConverterInfo<?, ?>[] {info});
+			}
+			for (int length = 2; (maxLength <= 0 || length <= maxLength || Skript.debug()) && !chains.isEmpty(); length++) {
+				final boolean cutOff = maxLength > 0 && length > maxLength;
+				final List<ConverterInfo<?, ?>[]> next = new ArrayList<ConverterInfo<?, ?>[]>();
+				for (final ConverterInfo<?, ?>[] chain : chains) {
+					for (final ConverterInfo<?, ?> edge : getEdges(chain[chain.length - 1].to, edges, registered)) {
+						if ((edge.options & Converter.NO_LEFT_CHAINING) != 0)
+							continue;
+						final ConverterInfo<?, ?>[] c = Arrays.copyOf(chain, length);
+						c[length - 1] = edge;
+						if (found.add(edge.to) && !converterExists(existing, source, edge.to)) {
+							if (cutOff) {
+								Skript.debug("Not creating a converter from " + source.getName() + " to " + edge.to.getName() + " as it requires a chain of " + length
+										+ " converters (maximum converter chain length: " + maxLength + ")");
+							} else {
+								final ConverterInfo<?, ?> info = createComposedConverter(c);
+								converters.add(info);
+								existing.add(info);
+							}
+						}
+						if ((edge.options & Converter.NO_RIGHT_CHAINING) == 0 && expanded.add(edge.to))
+							next.add(c);
+					}
 				}
+				chains = next;
 			}
 		}
+		convertersCache.clear();
 	}
 	
-	private final static boolean converterExistsSlow(final Class<?> from, final Class<?> to) {
-		for (final ConverterInfo<?, ?> i : converters) {
-			if ((i.from.isAssignableFrom(from) || from.isAssignableFrom(i.from)) && (i.to.isAssignableFrom(to) || to.isAssignableFrom(i.to))) {
-				return true;
+	/**
+	 * @return The registered converters that accept values of the given type
+	 */
+	private static List<ConverterInfo<?, ?>> getEdges(final Class<?> type, final Map<Class<?>, List<ConverterInfo<?, ?>>> edges, final int registered) {
+		List<ConverterInfo<?, ?>> e = edges.get(type);
+		if (e == null) {
+			e = new ArrayList<ConverterInfo<?, ?>>();
+			for (int i = 0; i < registered; i++) {
+				final ConverterInfo<?, ?> info = converters.get(i);
+				if (info.from.isAssignableFrom(type))
+					e.add(info);
 			}
+			edges.put(type, e);
+		}
+		return e;
+	}
+	
+	private static boolean converterExists(final List<ConverterInfo<?, ?>> existing, final Class<?> from, final Class<?> to) {
+		for (final ConverterInfo<?, ?> i : existing) {
+			if ((i.from.isAssignableFrom(from) || from.isAssignableFrom(i.from)) && (i.to.isAssignableFrom(to) || to.isAssignableFrom(i.to)))
+				return true;
 		}
 		return false;
 	}
 	
 	@SuppressWarnings("unchecked")
-	private static <F, M, T> ConverterInfo<F, T> createChainedConverter(final ConverterInfo<?, ?> first, final ConverterInfo<?, ?> second) {
-		return new ConverterInfo<F, T>((Class<F>) first.from, (Class<T>) second.to, new ChainedConverter<F, M, T>((Converter<F, M>) first.converter, (Converter<M, T>) second.converter), first.options | second.options);
+	private static <F, T> ConverterInfo<F, T> createComposedConverter(final ConverterInfo<?, ?>[] chain) {
+		final Converter<?, ?>[] cs = new Converter<?, ?>[chain.length];
+		int options = 0;
+		for (int i = 0; i < chain.length; i++) {
+			cs[i] = chain[i].converter;
+			options |= chain[i].options;
+		}
+		return new ConverterInfo<F, T>((Class<F>) chain[0].from, (Class<T>) chain[chain.length - 1].to, new ComposedConverter<F, T>(cs), options);
 	}
 	
 	/**
@@ -212,7 +281,14 @@ public abstract class Converters {
 		return r;
 	}
 	
-	private final static Map<Pair<Class<?>, Class<?>>, Converter<?, ?>> convertersCache = new HashMap<Pair<Class<?>, Class<?>>, Converter<?, ?>>();
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private final static ClassPairCache<Converter<?, ?>> convertersCache = new ClassPairCache<>(new ClassPairCache.Loader<Converter<?, ?>>() {
+		@Override
+		@Nullable
+		public Converter<?, ?> load(final Class<?> from, final Class<?> to) {
+			return getConverter_i((Class) from, (Class) to);
+		}
+	});
 	
 	/**
 	 * Tests whether a converter between the given classes exists.
@@ -246,12 +322,7 @@ public abstract class Converters {
 	@SuppressWarnings("unchecked")
 	@Nullable
 	public final static <F, T> Converter<? super F, ? extends T> getConverter(final Class<F> from, final Class<T> to) {
-		final Pair<Class<?>, Class<?>> p = new Pair<Class<?>, Class<?>>(from, to);
-		if (convertersCache.containsKey(p)) // can contain null to denote nonexistence of a converter
-			return (Converter<? super F, ? extends T>) convertersCache.get(p);
-		final Converter<? super F, ? extends T> c = getConverter_i(from, to);
-		convertersCache.put(p, c);
-		return c;
+		return (Converter<? super F, ? extends T>) convertersCache.get(from, to);
 	}
 	
 	@SuppressWarnings("unchecked")
@@ -0,0 +1,204 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ * Copyright 2011-2017 Peter Güttinger and contributors
+ */
+package ch.njol.skript.util;
+
+import ch.njol.skript.Skript;
+import ch.njol.skript.SkriptConfig;
+import ch.njol.skript.aliases.ItemType;
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+
+import javax.annotation.Nullable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects block changes made within a {@link ch.njol.skript.lang.Batch batch section} to apply them together, grouped by chunk and without
+ * physics, when the section ends. If {@link SkriptConfig#maxBatchedBlockChangesPerTick} is set, large edits are spread over several ticks.
+ * <p>
+ * Sessions are only used on the main thread.
+ */
+public final class BlockEditSession {
+	
+	private final static class ChunkKey {
+		
+		final World world;
+		final int x, z;
+		
+		ChunkKey(final World world, final int x, final int z) {
+			this.world = world;
+			this.x = x;
+			this.z = z;
+		}
+		
+		@Override
+		public int hashCode() {
+			return (31 * x + z) * 31 + world.hashCode();
+		}
+		
+		@Override
+		public boolean equals(final @Nullable Object obj) {
+			if (!(obj instanceof ChunkKey))
+				return false;
+			final ChunkKey other = (ChunkKey) obj;
+			return x == other.x && z == other.z && world.equals(other.world);
+		}
+		
+	}
+	
+	private final static class Change {
+		
+		final Block block;
+		
+		/**
+		 * The type to set the block to, or null for air
+		 */
+		@Nullable
+		final ItemType type;
+		
+		Change(final Block block, final @Nullable ItemType type) {
+			this.block = block;
+			this.type = type;
+		}
+		
+		@SuppressWarnings("deprecation")
+		void apply() {
+			final ItemType type = this.type;
+			if (type == null)
+				block.setTypeId(0, false);
+			else
+				type.setBlock(block, false);
+		}
+		
+	}
+	
+	@Nullable
+	private static BlockEditSession current = null;
+	
+	/**
+	 * Changes of finished sessions that exceeded the budget of the tick they were made in, applied by {@link #task}
+	 */
+	private final static Deque<Change> pending = new ArrayDeque<>();
+	
+	/**
+	 * Number of changes applied in the current tick if there is a budget, reset by {@link #task}
+	 */
+	private static int appliedThisTick = 0;
+	
+	/**
+	 * Resets {@link #appliedThisTick} and applies pending changes every tick while there are any or the budget of the current tick is being used.
+	 */
+	@Nullable
+	private static Task task = null;
+	
+	private final Object owner;
+	
+	private final Map<ChunkKey, List<Change>> changes = new LinkedHashMap<>();
+	
+	private BlockEditSession(final Object owner) {
+		this.owner = owner;
+	}
+	
+	/**
+	 * Starts a new session if none is active on the current thread.
+	 * 
+	 * @param owner The object that will end the session
+	 * @return Whether a session was started. If false, changes go to the already active session or are not batched at all.
+	 */
+	public static boolean start(final Object owner) {
+		if (current != null || !Bukkit.isPrimaryThread())
+			return false;
+		current = new BlockEditSession(owner);
+		return true;
+	}
+	
+	/**
+	 * Ends the active session and applies its changes, or queues them for the following ticks if the changes of all sessions ended in this tick
+	 * exceed the budget.
+	 * 
+	 * @param owner The object that started the session
+	 */
+	public static void end(final Object owner) {
+		final BlockEditSession session = current;
+		if (session == null || session.owner != owner)
+			return;
+		current = null;
+		for (final List<Change> chunk : session.changes.values())
+			pending.addAll(chunk);
+		applyPending();
+	}
+	
+	/**
+	 * Queues a change of the given block if a session is active.
+	 * 
+	 * @param block The block to change
+	 * @param type The type to set the block to, or null to set it to air
+	 * @return Whether the change was queued. If false, the caller has to change the block itself.
+	 */
+	public static boolean queue(final Block block, final @Nullable ItemType type) {
+		final BlockEditSession session = current;
+		if (session == null || !Bukkit.isPrimaryThread() || block instanceof BlockStateBlock || block instanceof DelayedChangeBlock)
+			return false;
+		final ChunkKey key = new ChunkKey(block.getWorld(), block.getX() >> 4, block.getZ() >> 4);
+		List<Change> chunk = session.changes.get(key);
+		if (chunk == null)
+			session.changes.put(key, chunk = new ArrayList<>());
+		chunk.add(new Change(block, type));
+		return true;
+	}
+	
+	private static void applyPending() {
+		final int budget = SkriptConfig.maxBatchedBlockChangesPerTick.value();
+		final Iterator<Change> iter = pending.iterator();
+		while (iter.hasNext() && (budget <= 0 || appliedThisTick < budget)) {
+			final Change change = iter.next();
+			iter.remove();
+			if (budget > 0)
+				appliedThisTick++;
+			try {
+				change.apply();
+			} catch (final Exception e) {
+				Skript.exception(e, "Error while changing a block of a batch section");
+			}
+		}
+		if (pending.isEmpty() && appliedThisTick == 0) {
+			final Task task = BlockEditSession.task;
+			if (task != null) {
+				task.cancel();
+				BlockEditSession.task = null;
+			}
+		} else if (task == null) {
+			task = new Task(Skript.getInstance(), 1, 1) {
+				@Override
+				public void run() {
+					appliedThisTick = 0;
+					applyPending();
+				}
+			};
+		}
+	}
+	
+}
@@ -46,11 +46,13 @@ public class BlockLineIterator extends StoppableIterator<Block> {
 				end.equals(start) ? new Vector(1, 0, 0) : end.getLocation().subtract(start.getLocation()).toVector(), 0, 0), // should prevent an error if start = end
 		new NullableChecker<Block>() {
 			private final double overshotSq = Math.pow(start.getLocation().distance(end.getLocation()) + 2, 2);
+			private final int x = start.getX(), y = start.getY(), z = start.getZ();
 			
 			@Override
 			public boolean check(final @Nullable Block b) {
 				assert b != null;
-				if (b.getLocation().distanceSquared(start.getLocation()) > overshotSq)
+				final double dx = b.getX() - x, dy = b.getY() - y, dz = b.getZ() - z;
+				if (dx * dx + dy * dy + dz * dz > overshotSq)
 					throw new IllegalStateException("BlockLineIterator missed the end block!");
 				return b.equals(end);
 			}
@@ -66,10 +68,14 @@ public class BlockLineIterator extends StoppableIterator<Block> {
 	public BlockLineIterator(final Location start, final Vector dir, final double dist) throws IllegalStateException {
 		super(new BlockIterator(start.getWorld(), fitInWorld(start, dir), dir, 0, 0), new NullableChecker<Block>() {
 			private final double distSq = dist * dist;
+			private final double x = start.getX() - 0.5, y = start.getY() - 0.5, z = start.getZ() - 0.5;
 			
 			@Override
 			public boolean check(final @Nullable Block b) {
-				return b != null && b.getLocation().add(0.5, 0.5, 0.5).distanceSquared(start) >= distSq;
+				if (b == null)
+					return false;
+				final double dx = b.getX() - x, dy = b.getY() - y, dz = b.getZ() - z;
+				return dx * dx + dy * dy + dz * dz >= distSq;
 			}
 		}, false);
 	}
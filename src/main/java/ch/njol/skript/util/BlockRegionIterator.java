@@ -0,0 +1,239 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ * Copyright 2011-2017 Peter Güttinger and contributors
+ */
+package ch.njol.skript.util;
+
+import ch.njol.skript.Skript;
+import ch.njol.skript.aliases.ItemType;
+import ch.njol.util.Math2;
+import org.bukkit.Chunk;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+
+import javax.annotation.Nullable;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterates over the blocks of a cuboid region chunk by chunk. The coordinates are iterated as primitives, and blocks are only created when
+ * requested, directly from the cached chunk of the current position.
+ * <p>
+ * Subclasses can restrict the region to some shape by overriding {@link #contains(int, int, int)}.
+ */
+public class BlockRegionIterator implements Iterator<Block> {
+	
+	private final World world;
+	
+	private final int minX, minY, minZ, maxX, maxY, maxZ;
+	private final int maxChunkX, minChunkZ, maxChunkZ;
+	
+	/**
+	 * The current chunk and the part of the region within it
+	 */
+	private int chunkX, chunkZ;
+	private int chunkMinX, chunkMaxX, chunkMinZ, chunkMaxZ;
+	@Nullable
+	private Chunk chunk = null;
+	
+	private int x, y, z;
+	
+	/**
+	 * Whether the current position is the next one to be returned by {@link #next()}, or whether there is none if {@link #done}
+	 */
+	private boolean ready = false;
+	private boolean done;
+	
+	/**
+	 * Creates an iterator over all blocks with the given coordinates, including the bounds.
+	 */
+	public BlockRegionIterator(final World world, final int minX, final int minY, final int minZ, final int maxX, final int maxY, final int maxZ) {
+		this.world = world;
+		this.minX = minX;
+		this.minY = minY;
+		this.minZ = minZ;
+		this.maxX = maxX;
+		this.maxY = maxY;
+		this.maxZ = maxZ;
+		maxChunkX = maxX >> 4;
+		minChunkZ = minZ >> 4;
+		maxChunkZ = maxZ >> 4;
+		done = minX > maxX || minY > maxY || minZ > maxZ;
+		if (!done) {
+			setChunk(minX >> 4, minChunkZ);
+			x = chunkMinX - 1; // advance() increases x by one immediately
+		}
+	}
+	
+	/**
+	 * Creates an iterator over all blocks that are in the given AABB.
+	 */
+	public BlockRegionIterator(final AABB box) {
+		this(box.world, Math2.ceilI(box.lowerBound.getX() - Skript.EPSILON), Math2.ceilI(box.lowerBound.getY() - Skript.EPSILON), Math2.ceilI(box.lowerBound.getZ() - Skript.EPSILON),
+				Math2.floorI(box.upperBound.getX() + Skript.EPSILON) - 1, Math2.floorI(box.upperBound.getY() + Skript.EPSILON) - 1, Math2.floorI(box.upperBound.getZ() + Skript.EPSILON) - 1);
+	}
+	
+	private void setChunk(final int chunkX, final int chunkZ) {
+		this.chunkX = chunkX;
+		this.chunkZ = chunkZ;
+		chunkMinX = Math.max(minX, chunkX << 4);
+		chunkMaxX = Math.min(maxX, chunkX << 4 | 15);
+		chunkMinZ = Math.max(minZ, chunkZ << 4);
+		chunkMaxZ = Math.min(maxZ, chunkZ << 4 | 15);
+		chunk = null;
+		x = chunkMinX;
+		y = minY;
+		z = chunkMinZ;
+	}
+	
+	/**
+	 * @return Whether the block at the given coordinates is part of the region. The coordinates are always within the bounds given to the
+	 *         constructor.
+	 */
+	protected boolean contains(final int x, final int y, final int z) {
+		return true;
+	}
+	
+	/**
+	 * Moves to the next position in the region.
+	 * 
+	 * @return Whether there was another position
+	 */
+	public boolean advance() {
+		if (ready) {
+			ready = false;
+			return !done;
+		}
+		if (done)
+			return false;
+		while (true) {
+			if (++x > chunkMaxX) {
+				x = chunkMinX;
+				if (++z > chunkMaxZ) {
+					z = chunkMinZ;
+					if (++y > maxY) {
+						if (chunkZ < maxChunkZ) {
+							setChunk(chunkX, chunkZ + 1);
+						} else if (chunkX < maxChunkX) {
+							setChunk(chunkX + 1, minChunkZ);
+						} else {
+							done = true;
+							return false;
+						}
+					}
+				}
+			}
+			if (contains(x, y, z))
+				return true;
+		}
+	}
+	
+	/**
+	 * @return The x coordinate of the current position
+	 */
+	public int getX() {
+		return x;
+	}
+	
+	/**
+	 * @return The y coordinate of the current position
+	 */
+	public int getY() {
+		return y;
+	}
+	
+	/**
+	 * @return The z coordinate of the current position
+	 */
+	public int getZ() {
+		return z;
+	}
+	
+	/**
+	 * @return The block at the current position
+	 */
+	@SuppressWarnings("null")
+	public Block getBlock() {
+		Chunk chunk = this.chunk;
+		if (chunk == null)
+			this.chunk = chunk = world.getChunkAt(chunkX, chunkZ);
+		return chunk.getBlock(x & 15, y, z & 15);
+	}
+	
+	public World getWorld() {
+		return world;
+	}
+	
+	@Override
+	public boolean hasNext() {
+		if (!ready) {
+			advance();
+			ready = true;
+		}
+		return !done;
+	}
+	
+	@Override
+	public Block next() {
+		if (!hasNext())
+			throw new NoSuchElementException();
+		ready = false;
+		return getBlock();
+	}
+	
+	@Override
+	public void remove() {
+		throw new UnsupportedOperationException();
+	}
+	
+	/**
+	 * Sets all remaining blocks of this iterator to the given type. This works chunk by chunk like iterating does, but doesn't create a block
+	 * array first.
+	 * 
+	 * @param type The type to set the blocks to, see {@link ItemType#setBlock(Block, boolean)}
+	 * @param applyPhysics Whether to apply physics to the changed blocks
+	 * @return The number of blocks that were changed or queued to be changed by the current {@link BlockEditSession}
+	 */
+	public int setAll(final ItemType type, final boolean applyPhysics) {
+		int changed = 0;
+		while (advance()) {
+			final Block block = getBlock();
+			if (BlockEditSession.queue(block, type) || type.setBlock(block, applyPhysics))
+				changed++;
+		}
+		return changed;
+	}
+	
+	/**
+	 * Sets all remaining blocks of this iterator to air.
+	 * 
+	 * @param applyPhysics Whether to apply physics to the changed blocks
+	 * @return The number of blocks that were changed or queued to be changed by the current {@link BlockEditSession}
+	 */
+	@SuppressWarnings("deprecation")
+	public int clearAll(final boolean applyPhysics) {
+		int changed = 0;
+		while (advance()) {
+			final Block block = getBlock();
+			if (BlockEditSession.queue(block, null) || block.setTypeId(0, applyPhysics))
+				changed++;
+		}
+		return changed;
+	}
+	
+}
@@ -20,26 +20,30 @@
 package ch.njol.skript.util;
 
 import ch.njol.skript.Skript;
-import ch.njol.util.NullableChecker;
-import ch.njol.util.coll.iterator.CheckedIterator;
 import org.bukkit.Location;
-import org.bukkit.block.Block;
-
-import javax.annotation.Nullable;
 
 /**
+ * Iterates over all blocks whose centres are within a given distance of a location, chunk by chunk.
+ * 
  * @author Peter Güttinger
  */
-public class BlockSphereIterator extends CheckedIterator<Block> {
+public class BlockSphereIterator extends BlockRegionIterator {
+	
+	private final double centerX, centerY, centerZ;
+	private final double rSquared;
 	
 	public BlockSphereIterator(final Location center, final double radius) {
-		super(new AABB(center, radius + 0.5001, radius + 0.5001, radius + 0.5001).iterator(), new NullableChecker<Block>() {
-			private final double rSquared = radius * radius * Skript.EPSILON_MULT;
-			
-			@Override
-			public boolean check(final @Nullable Block b) {
-				return b != null && center.distanceSquared(b.getLocation().add(0.5, 0.5, 0.5)) < rSquared;
-			}
-		});
+		super(new AABB(center, radius + 0.5001, radius + 0.5001, radius + 0.5001));
+		centerX = center.getX() - 0.5;
+		centerY = center.getY() - 0.5;
+		centerZ = center.getZ() - 0.5;
+		rSquared = radius * radius * Skript.EPSILON_MULT;
 	}
+	
+	@Override
+	protected boolean contains(final int x, final int y, final int z) {
+		final double dx = x - centerX, dy = y - centerY, dz = z - centerZ;
+		return dx * dx + dy * dy + dz * dz < rSquared;
+	}
+	
 }
@@ -0,0 +1,279 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ * Copyright 2011-2017 Peter Güttinger and contributors
+ */
+package ch.njol.skript.util;
+
+import ch.njol.skript.classes.Comparator;
+import ch.njol.skript.registrations.Comparators;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Sorts and shuffles lists of values of scripts.
+ * <p>
+ * Lists of only integers (longs), only decimal numbers (doubles) or only texts are sorted as primitive or string arrays, in parallel if they are large. Other lists are sorted
+ * with one comparator that resolves the {@link Comparators Skript comparators} for the classes of the values once before sorting.
+ */
+public final class ListSorter {
+	
+	private ListSorter() {}
+	
+	/**
+	 * Lists with at least this many values are sorted in parallel if possible
+	 */
+	public final static int PARALLEL_THRESHOLD = 1 << 14;
+	
+	/**
+	 * If a list has more different classes than this, comparators are looked up for every comparison instead
+	 */
+	private final static int MAX_RESOLVED_CLASSES = 8;
+	
+	private static enum Kind {
+		LONGS, DOUBLES, STRINGS, OTHER;
+	}
+	
+	/**
+	 * Only lists of a single class are sorted as primitives, so that the sorted values can be boxed again without changing their class.
+	 */
+	private static Kind getKind(final Object[] values) {
+		final Class<?> c = values.length == 0 ? null : values[0].getClass();
+		if (c != Long.class && c != Double.class && c != String.class)
+			return Kind.OTHER;
+		for (final Object o : values) {
+			if (o.getClass() != c)
+				return Kind.OTHER;
+		}
+		return c == Long.class ? Kind.LONGS : c == Double.class ? Kind.DOUBLES : Kind.STRINGS;
+	}
+	
+	/**
+	 * Sorts the given values in ascending order.
+	 * 
+	 * @param values The values to sort, which are not modified
+	 * @return A new array with the sorted values, or null if the values cannot be compared with each other
+	 */
+	@Nullable
+	public static Object[] sort(final Object[] values) {
+		final Object[] sorted = values.clone();
+		final int length = sorted.length;
+		if (length < 2)
+			return sorted;
+		switch (getKind(sorted)) {
+			case LONGS:
+				final long[] longs = new long[length];
+				for (int i = 0; i < length; i++)
+					longs[i] = (Long) sorted[i];
+				if (length >= PARALLEL_THRESHOLD)
+					Arrays.parallelSort(longs);
+				else
+					Arrays.sort(longs);
+				for (int i = 0; i < length; i++)
+					sorted[i] = longs[i];
+				return sorted;
+			case DOUBLES:
+				final double[] doubles = new double[length];
+				for (int i = 0; i < length; i++)
+					doubles[i] = (Double) sorted[i];
+				if (length >= PARALLEL_THRESHOLD)
+					Arrays.parallelSort(doubles);
+				else
+					Arrays.sort(doubles);
+				for (int i = 0; i < length; i++)
+					sorted[i] = doubles[i];
+				return sorted;
+			case STRINGS:
+				final String[] strings = Arrays.copyOf(sorted, length, String[].class);
+				if (length >= PARALLEL_THRESHOLD)
+					Arrays.parallelSort(strings);
+				else
+					Arrays.sort(strings);
+				return strings;
+			case OTHER:
+				final java.util.Comparator<Object> comparator = getComparator(sorted);
+				if (comparator == null)
+					return null;
+				try {
+					Arrays.sort(sorted, comparator);
+				} catch (final IllegalArgumentException e) { // the comparators are inconsistent
+					return null;
+				}
+				return sorted;
+		}
+		assert false;
+		return null;
+	}
+	
+	/**
+	 * Determines the order of the given keys. The sort is stable, i.e. equal keys keep their order.
+	 * 
+	 * @param keys The keys to sort by
+	 * @return The indices of the keys in ascending order of the keys, or null if the keys cannot be compared with each other
+	 */
+	@Nullable
+	public static int[] order(final Object[] keys) {
+		final int length = keys.length;
+		final Integer[] indices = new Integer[length];
+		for (int i = 0; i < length; i++)
+			indices[i] = i;
+		final java.util.Comparator<Integer> comparator;
+		switch (getKind(keys)) {
+			case LONGS:
+				final long[] longs = new long[length];
+				for (int i = 0; i < length; i++)
+					longs[i] = (Long) keys[i];
+				comparator = new java.util.Comparator<Integer>() {
+					@Override
+					public int compare(final @Nullable Integer i1, final @Nullable Integer i2) {
+						assert i1 != null && i2 != null;
+						return Long.compare(longs[i1], longs[i2]);
+					}
+				};
+				break;
+			case DOUBLES:
+				final double[] doubles = new double[length];
+				for (int i = 0; i < length; i++)
+					doubles[i] = (Double) keys[i];
+				comparator = new java.util.Comparator<Integer>() {
+					@Override
+					public int compare(final @Nullable Integer i1, final @Nullable Integer i2) {
+						assert i1 != null && i2 != null;
+						return Double.compare(doubles[i1], doubles[i2]);
+					}
+				};
+				break;
+			case STRINGS:
+			case OTHER:
+			default:
+				final java.util.Comparator<Object> c = getComparator(keys);
+				if (c == null)
+					return null;
+				comparator = new java.util.Comparator<Integer>() {
+					@Override
+					public int compare(final @Nullable Integer i1, final @Nullable Integer i2) {
+						assert i1 != null && i2 != null;
+						return c.compare(keys[i1], keys[i2]);
+					}
+				};
+		}
+		try {
+			Arrays.sort(indices, comparator);
+		} catch (final IllegalArgumentException e) { // the comparators are inconsistent
+			return null;
+		}
+		final int[] order = new int[length];
+		for (int i = 0; i < length; i++)
+			order[i] = indices[i];
+		return order;
+	}
+	
+	/**
+	 * Gets a comparator for the given values, resolving the comparators between the classes of the values beforehand.
+	 * 
+	 * @param values Non-null values
+	 * @return A comparator for the values, or null if some of the values cannot be ordered
+	 */
+	@SuppressWarnings({"rawtypes", "unchecked"})
+	@Nullable
+	public static java.util.Comparator<Object> getComparator(final Object[] values) {
+		final Map<Class<?>, Integer> classes = new HashMap<>();
+		for (final Object o : values) {
+			if (!classes.containsKey(o.getClass())) {
+				if (classes.size() == MAX_RESOLVED_CLASSES)
+					return Comparators.getJavaComparator();
+				classes.put(o.getClass(), classes.size());
+			}
+		}
+		if (classes.isEmpty())
+			return Comparators.getJavaComparator();
+		final Class<?>[] cs = new Class<?>[classes.size()];
+		for (final Map.Entry<Class<?>, Integer> e : classes.entrySet())
+			cs[e.getValue()] = e.getKey();
+		final java.util.Comparator[][] comparators = getComparators(cs);
+		if (comparators == null)
+			return null;
+		if (cs.length == 1) {
+			final java.util.Comparator<Object> c = comparators[0][0];
+			assert c != null;
+			return c;
+		}
+		return new java.util.Comparator<Object>() {
+			@Override
+			public int compare(final @Nullable Object o1, final @Nullable Object o2) {
+				assert o1 != null && o2 != null;
+				final Integer i1 = classes.get(o1.getClass()), i2 = classes.get(o2.getClass());
+				assert i1 != null && i2 != null;
+				return comparators[i1][i2].compare(o1, o2);
+			}
+		};
+	}
+	
+	/**
+	 * @param cs Classes of the values
+	 * @return A comparator for each pair of the given classes, or null if some pair cannot be ordered
+	 */
+	@SuppressWarnings({"rawtypes", "unchecked"})
+	@Nullable
+	private static java.util.Comparator[][] getComparators(final Class<?>[] cs) {
+		final java.util.Comparator[][] comparators = new java.util.Comparator[cs.length][cs.length];
+		for (int i = 0; i < cs.length; i++) {
+			for (int j = 0; j < cs.length; j++) {
+				final Comparator c = Comparators.getComparator(cs[i], cs[j]);
+				final java.util.Comparator<Object> comparator;
+				if (c != null && c.supportsOrdering()) {
+					comparator = new java.util.Comparator<Object>() {
+						@Override
+						public int compare(final @Nullable Object o1, final @Nullable Object o2) {
+							return c.compare(o1, o2).getRelation();
+						}
+					};
+				} else if (i == j && Comparable.class.isAssignableFrom(cs[i])) {
+					comparator = new java.util.Comparator<Object>() {
+						@Override
+						public int compare(final @Nullable Object o1, final @Nullable Object o2) {
+							assert o1 != null;
+							return ((Comparable) o1).compareTo(o2);
+						}
+					};
+				} else {
+					return null;
+				}
+				comparators[i][j] = comparator;
+			}
+		}
+		return comparators;
+	}
+	
+	/**
+	 * Shuffles the given array in place.
+	 */
+	public static void shuffle(final Object[] values) {
+		final ThreadLocalRandom random = ThreadLocalRandom.current();
+		for (int i = values.length - 1; i > 0; i--) {
+			final int j = random.nextInt(i + 1);
+			final Object o = values[i];
+			values[i] = values[j];
+			values[j] = o;
+		}
+	}
+	
+}
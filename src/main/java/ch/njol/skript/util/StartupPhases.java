@@ -0,0 +1,167 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ * Copyright 2011-2017 Peter Güttinger and contributors
+ */
+package ch.njol.skript.util;
+
+import ch.njol.skript.Skript;
+
+import javax.annotation.Nullable;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps track of the phases of Skript's startup and runs the parts of it that don't depend on the server in the background.
+ * <p>
+ * Most of the startup has to run on the main thread, as registering syntax, loading aliases and parsing scripts all use Skript's logger and shared
+ * registries which are not thread safe. Reading the files these phases need, i.e. the aliases and all scripts, only depends on the data folder
+ * though, so they are read in the background as soon as the data folder exists, while classes are registered on the main thread.
+ * <p>
+ * The duration of every phase is logged when Skript has finished loading.
+ */
+public final class StartupPhases {
+	
+	private StartupPhases() {}
+	
+	private final static Map<String, Long> durations = new LinkedHashMap<>();
+	
+	@Nullable
+	private static String currentPhase = null;
+	private static long currentStart = 0;
+	
+	/**
+	 * Files read in the background, removed when they are used.
+	 */
+	private final static Map<File, Future<byte[]>> prefetched = new ConcurrentHashMap<>();
+	
+	@Nullable
+	private static ExecutorService executor = null;
+	
+	/**
+	 * Starts a new phase of the startup, ending the current one if there is one. Must be called from the main thread.
+	 * 
+	 * @param phase The name of the phase as displayed in the timings
+	 */
+	public static void begin(final String phase) {
+		end();
+		currentPhase = phase;
+		currentStart = System.nanoTime();
+	}
+	
+	/**
+	 * Ends the current phase if there is one, e.g. before waiting for the server to finish loading.
+	 */
+	public static void end() {
+		final String phase = currentPhase;
+		if (phase == null)
+			return;
+		final Long before = durations.get(phase);
+		durations.put(phase, (before == null ? 0 : before) + System.nanoTime() - currentStart);
+		currentPhase = null;
+	}
+	
+	/**
+	 * Ends the current phase and logs the durations of all phases.
+	 */
+	public static void finish() {
+		end();
+		if (Skript.logHigh() && !durations.isEmpty()) {
+			long total = 0;
+			final StringBuilder b = new StringBuilder();
+			for (final Entry<String, Long> e : durations.entrySet()) {
+				if (b.length() != 0)
+					b.append(", ");
+				b.append(e.getKey()).append(": ").append(e.getValue() / 1000000).append(" ms");
+				total += e.getValue();
+			}
+			Skript.info("Started in " + total / 1000000 + " ms (" + b + ")");
+		}
+		durations.clear();
+	}
+	
+	/**
+	 * Starts reading the given file in the background. Use {@link #takePrefetched(File)} to get its contents.
+	 * 
+	 * @param file
+	 */
+	public static synchronized void prefetch(final File file) {
+		ExecutorService e = executor;
+		if (e == null) {
+			final AtomicInteger threads = new AtomicInteger();
+			executor = e = Executors.newFixedThreadPool(Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1)), new ThreadFactory() {
+				@Override
+				public Thread newThread(final @Nullable Runnable r) {
+					final Thread t = new Thread(r, "Skript startup file reader " + threads.incrementAndGet());
+					t.setDaemon(true);
+					return t;
+				}
+			});
+		}
+		prefetched.put(file, e.submit(() -> Files.readAllBytes(file.toPath())));
+	}
+	
+	/**
+	 * Gets the contents of a file that has been passed to {@link #prefetch(File)}, waiting for it to be read if necessary. A file can only be taken once,
+	 * later calls for the same file return null.
+	 * 
+	 * @param file
+	 * @return A stream of the file's contents, or null if the file has not been prefetched or could not be read, in which case the caller should read
+	 *         it itself to get the appropriate error.
+	 */
+	@Nullable
+	public static InputStream takePrefetched(final File file) {
+		final Future<byte[]> f = prefetched.remove(file);
+		if (f == null)
+			return null;
+		try {
+			return new ByteArrayInputStream(f.get());
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return null;
+		} catch (final ExecutionException e) {
+			return null;
+		}
+	}
+	
+	/**
+	 * Discards all prefetched files that have not been used and stops the background threads.
+	 */
+	public static synchronized void clearPrefetched() {
+		for (final Future<byte[]> f : prefetched.values())
+			f.cancel(false);
+		prefetched.clear();
+		final ExecutorService e = executor;
+		if (e != null) {
+			e.shutdown();
+			executor = null;
+		}
+	}
+	
+}
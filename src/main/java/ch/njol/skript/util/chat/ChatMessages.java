@@ -25,8 +25,8 @@ import ch.njol.skript.Skript;
 import ch.njol.skript.localization.Language;
 import ch.njol.skript.localization.LanguageChangeListener;
 import ch.njol.skript.util.Color;
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
+import ch.njol.skript.util.chat.MessageComponent.ClickEvent;
+import ch.njol.skript.util.chat.MessageComponent.HoverEvent;
 
 import javax.annotation.Nullable;
 import java.util.*;
@@ -54,13 +54,20 @@ public class ChatMessages {
 	
 	static final ChatCode[] colorChars = new ChatCode[256];
 	
+	/**
+	 * Incremented whenever {@link #codes} are reloaded.
+	 */
+	private static volatile int codesVersion = 0;
+	
 	@SuppressWarnings("null")
 	static final Pattern linkPattern = Pattern.compile("[-a-zA-Z0-9@:%._\\+~#=]{2,256}\\.[a-z]{2,6}\\b([-a-zA-Z0-9@:%_\\+.~#?&//=]*)");
 	
 	/**
-	 * Instance of GSON we use for serialization.
+	 * Builders for {@link #toJson(List)}, reused to avoid growing a new builder for every message.
 	 */
-	static final Gson gson;
+	private static final ThreadLocal<StringBuilder> jsonBuilders = ThreadLocal.withInitial(StringBuilder::new);
+	
+	private static final int MAX_JSON_BUILDER_CAPACITY = 8192;
 	
 	public static void registerListeners() {
 		// When language changes or server is loaded loop through all chatcodes
@@ -95,110 +102,46 @@ public class ChatMessages {
 				colorChars['n'] = ChatCode.underlined;
 				colorChars['o'] = ChatCode.italic;
 				colorChars['r'] = ChatCode.reset;
+				
+				codesVersion++;
 			}
 		});
 	}
 	
-	static {
-		Gson nullableGson = new GsonBuilder().registerTypeAdapter(boolean.class, new MessageComponent.BooleanSerializer()).create();
-		assert nullableGson != null;
-		gson = nullableGson;
-	}
-	
-	/**
-	 * Component list - this is just serialization mapper class.
-	 */
-	private static class ComponentList {
-		
-		public ComponentList(List<MessageComponent> components) {
-			this.extra = components;
-		}
-		
-		@SuppressWarnings("unused")
-		public ComponentList(MessageComponent[] components) {
-			this.extra = Arrays.asList(components);
-		}
-
-		/**
-		 * DO NOT USE!
-		 */
-		@SuppressWarnings("unused")
-		@Deprecated
-		public String text = "";
-		
-		/**
-		 * Actual message data.
-		 */
-		@SuppressWarnings("unused")
-		@Nullable
-		public List<MessageComponent> extra;
-	}
-	
 	/**
 	 * Parses a string to list of chat message components.
 	 * @param msg Input string.
 	 * @return List with components.
 	 */
 	public static List<MessageComponent> parse(String msg) {
-		char[] chars = msg.toCharArray();
+		int length = msg.length();
+		LinkParseMode linkParseMode = ChatMessages.linkParseMode;
 		
 		List<MessageComponent> components = new ArrayList<>();
 		MessageComponent current = new MessageComponent();
 		components.add(current);
-		StringBuilder curStr = new StringBuilder();
+		StringBuilder curStr = new StringBuilder(length);
 		
-		for (int i = 0; i < chars.length; i++) {
-			char c = chars[i];
-			ChatCode code = null;
-			String param = "";
+		for (int i = 0; i < length; i++) {
+			char c = msg.charAt(i);
 			
 			if (c == '<') { // Tag parsing
-				// Find where the tag ends
-				int end = -1;
-				int angleBrackets = 1; // Ignore stuff that looks like tag inside the tag
-				for (int j = i + 1; j < chars.length; j++) {
-					char c2 = chars[j];
-					if (c2 == '<')
-						angleBrackets++;
-					else if (c2 == '>')
-						angleBrackets--;
-					
-					if (angleBrackets == 0) {
-						end = j;
-						break;
-					}
-				}
-				
+				int end = findTagEnd(msg, i);
 				if (end != -1) { // If this COULD be valid tag...
-					String tag = msg.substring(i + 1, end);
-					String name;
-					if (tag.contains(":")) {
-						String[] split = tag.split(":", 2);
-						name = split[0];
-						param = split[1];
+					String name, param;
+					int colon = msg.indexOf(':', i + 1);
+					if (colon != -1 && colon < end) {
+						name = msg.substring(i + 1, colon);
+						param = msg.substring(colon + 1, end);
 					} else {
-						name = tag;
+						name = msg.substring(i + 1, end);
+						param = "";
 					}
+					assert name != null && param != null;
 					
-					code = codes.get(name);
+					ChatCode code = codes.get(name);
 					if (code != null) { // ... and if the tag IS really valid
-						String text = curStr.toString();
-						curStr = new StringBuilder();
-						assert text != null;
-						current.text = text;
-						
-						MessageComponent old = current;
-						current = new MessageComponent();
-						
-						components.add(current);
-						
-						if (code.colorCode != null) // Just update color code
-							current.color = code.colorCode;
-						else
-							code.updateComponent(current, param); // Call ChatCode update
-						
-						// Copy styles from old to current if needed
-						copyStyles(old, current);
+						current = nextComponent(components, current, curStr, code, param);
 						
 						// Increment i to tag end
 						i = end;
@@ -209,118 +152,54 @@ public class ChatMessages {
 				}
 			} else if (c == '&' || c == '§') {
 				// Corner case: this is last character, so we cannot get next
-				if (i == chars.length - 1) {
+				if (i == length - 1) {
 					curStr.append(c);
 					continue;
 				}
 				
-				char color = chars[i + 1];
-				code = colorChars[color];
-				if (code == null) {
+				char color = msg.charAt(i + 1);
+				ChatCode code = color < colorChars.length ? colorChars[color] : null;
+				if (code == null)
 					curStr.append(c).append(color); // Invalid formatting char, plain append
-				} else {
-					String text = curStr.toString();
-					curStr = new StringBuilder();
-					assert text != null;
-					current.text = text;
-					
-					MessageComponent old = current;
-					current = new MessageComponent();
-					
-					components.add(current);
-					
-					if (code.colorCode != null) // Just update color code
-						current.color = code.colorCode;
-					else
-						code.updateComponent(current, param); // Call ChatCode update
-					
-					// Copy styles from old to current if needed
-					copyStyles(old, current);
-				}
+				else
+					current = nextComponent(components, current, curStr, code, "");
 				
 				i++; // Skip this and color char
 				continue;
 			}
 			
 			// Attempt link parsing, if a tag was not found
-			if (linkParseMode == LinkParseMode.STRICT && c == 'h') {
-				String rest = msg.substring(i); // Get rest of string
-				
-				String link = null;
-				if (rest.startsWith("http://") || rest.startsWith("https://")) {
-					link = rest.split(" ", 2)[0];
-				}
-				
-				// Link found
-				if (link != null && !link.isEmpty()) {
-					// Take previous component, create new
-					String text = curStr.toString();
-					curStr = new StringBuilder();
-					assert text != null;
-					current.text = text;
-					
-					MessageComponent old = current;
-					current = new MessageComponent();
-					copyStyles(old, current);
-					
-					components.add(current);
-					
-					// Make new component a link
-					ChatCode.open_url.updateComponent(current, link); // URL for client...
-					current.text = link; // ... and for player
-					
+			if (linkParseMode == LinkParseMode.STRICT) {
+				if (c == 'h' && (msg.startsWith("http://", i) || msg.startsWith("https://", i))) {
+					String link = msg.substring(i, wordEnd(msg, i));
+					assert link != null;
+					current = addLink(components, current, curStr, link, link);
 					i += link.length() - 1; // Skip link for all other parsing
-					
-					// Add one MORE component (this comes after the link)
-					current = new MessageComponent();
-					components.add(current);
 					continue;
 				}
-			} else if (linkParseMode == LinkParseMode.LENIENT && (i == 0 || chars[i - 1] == ' ')) {
+			} else if (linkParseMode == LinkParseMode.LENIENT && c != ' ' && (i == 0 || msg.charAt(i - 1) == ' ')) {
 				// Lenient link parsing
-				String rest = msg.substring(i); // Get rest of string
-				
-				String link = null;
-				String potentialLink = rest.split(" ", 2)[0]; // Split stuff
-				if (linkPattern.matcher(potentialLink).matches()) { // Check if it is at least somewhat valid URL
-					link = potentialLink;
-				}
-				
-				// Link found
-				if (link != null && !link.isEmpty()) {
-					// Insert protocol (aka guess it) if it isn't there
-					String url;
-					if (!link.startsWith("http://") && !link.startsWith("https://")) {
-						url = "http://" + link; // Hope that http -> https redirect works on target site...
-					} else {
-						url = link;
+				int end = wordEnd(msg, i);
+				int dot = msg.indexOf('.', i);
+				if (dot != -1 && dot < end) { // Cheap check before using the pattern
+					String link = msg.substring(i, end);
+					assert link != null;
+					if (linkPattern.matcher(link).matches()) { // Check if it is at least somewhat valid URL
+						// Insert protocol (aka guess it) if it isn't there
+						String url;
+						if (!link.startsWith("http://") && !link.startsWith("https://")) {
+							url = "http://" + link; // Hope that http -> https redirect works on target site...
+						} else {
+							url = link;
+						}
+						
+						current = addLink(components, current, curStr, url, link);
+						i += link.length() - 1; // Skip link for all other parsing
+						continue;
 					}
-					
-					// Take previous component, create new
-					String text = curStr.toString();
-					curStr = new StringBuilder();
-					assert text != null;
-					current.text = text;
-					
-					MessageComponent old = current;
-					current = new MessageComponent();
-					copyStyles(old, current);
-					
-					components.add(current);
-					
-					// Make new component a link
-					ChatCode.open_url.updateComponent(current, url); // URL for client...
-					current.text = link; // ... and for player
-					
-					i += link.length() - 1; // Skip link for all other parsing
-					
-					// Add one MORE component (this comes after the link)
-					current = new MessageComponent();
-					components.add(current);
-					continue;
 				}
 			}
-				
+			
 			curStr.append(c); // Append this char to curStr
 		}
 		
@@ -331,25 +210,245 @@ public class ChatMessages {
 		return components;
 	}
 	
+	/**
+	 * @param msg The message
+	 * @param start Index of the opening angle bracket of the tag
+	 * @return Index of the matching closing angle bracket, or -1 if there is none. Tags within the tag are skipped.
+	 */
+	private static int findTagEnd(String msg, int start) {
+		int angleBrackets = 1; // Ignore stuff that looks like tag inside the tag
+		for (int j = start + 1; j < msg.length(); j++) {
+			char c = msg.charAt(j);
+			if (c == '<') {
+				angleBrackets++;
+			} else if (c == '>') {
+				angleBrackets--;
+				if (angleBrackets == 0)
+					return j;
+			}
+		}
+		return -1;
+	}
+	
+	/**
+	 * @return Index of the first space after the start index, or the length of the message if there is none
+	 */
+	private static int wordEnd(String msg, int start) {
+		int end = msg.indexOf(' ', start);
+		return end == -1 ? msg.length() : end;
+	}
+	
+	/**
+	 * Finishes the current component and creates the next one, styled by the given chat code.
+	 * @return The new component.
+	 */
+	private static MessageComponent nextComponent(List<MessageComponent> components, MessageComponent current, StringBuilder curStr, ChatCode code, String param) {
+		String text = curStr.toString();
+		assert text != null;
+		current.text = text;
+		curStr.setLength(0);
+		
+		MessageComponent next = new MessageComponent();
+		components.add(next);
+		
+		if (code.colorCode != null) // Just update color code
+			next.color = code.colorCode;
+		else
+			code.updateComponent(next, param); // Call ChatCode update
+		
+		// Copy styles from old to current if needed
+		copyStyles(current, next);
+		return next;
+	}
+	
+	/**
+	 * Finishes the current component and adds a link component followed by a new component for the rest of the text.
+	 * @return The component after the link.
+	 */
+	private static MessageComponent addLink(List<MessageComponent> components, MessageComponent current, StringBuilder curStr, String url, String link) {
+		// Take previous component, create new
+		String text = curStr.toString();
+		assert text != null;
+		current.text = text;
+		curStr.setLength(0);
+		
+		MessageComponent linkComponent = new MessageComponent();
+		copyStyles(current, linkComponent);
+		components.add(linkComponent);
+		
+		// Make new component a link
+		ChatCode.open_url.updateComponent(linkComponent, url); // URL for client...
+		linkComponent.text = link; // ... and for player
+		
+		// Add one MORE component (this comes after the link)
+		MessageComponent next = new MessageComponent();
+		components.add(next);
+		return next;
+	}
+	
+	/**
+	 * Used to detect when cached results of {@link #parse(String)} become outdated. Together with {@link #linkParseMode} and {@link #colorResetCodes}
+	 * this determines how a string is parsed.
+	 * 
+	 * @return A number that changes whenever the chat codes change, e.g. because the language was changed.
+	 */
+	public static int getCodesVersion() {
+		return codesVersion;
+	}
+	
+	/**
+	 * Checks whether the given text is parsed the same on its own as it is as part of a message, provided that the text surrounding it in the message
+	 * is {@link #isPlainText(String) plain text} and link parsing is disabled. This is the case if the text doesn't end with a formatting code
+	 * character and all of its tags are closed within the text.
+	 * 
+	 * @param s Some text
+	 * @return Whether the components of the text can be parsed once and reused in messages with different surrounding text
+	 */
+	public static boolean isSelfContained(String s) {
+		int length = s.length();
+		if (length == 0)
+			return true;
+		char last = s.charAt(length - 1);
+		if (last == '&' || last == '§')
+			return false;
+		// Every '<' is checked for whether it is a tag, so every '<' must have its matching '>' within the text
+		for (int i = s.indexOf('<'); i != -1; i = s.indexOf('<', i + 1)) {
+			int angleBrackets = 1;
+			for (int j = i + 1; j < length && angleBrackets != 0; j++) {
+				char c = s.charAt(j);
+				if (c == '<')
+					angleBrackets++;
+				else if (c == '>')
+					angleBrackets--;
+			}
+			if (angleBrackets != 0)
+				return false;
+		}
+		return true;
+	}
+	
+	/**
+	 * @param s Some text
+	 * @return Whether the text contains neither tags nor formatting codes, i.e. can be inserted into a message without affecting the parsing of the
+	 *         message if link parsing is disabled.
+	 */
+	public static boolean isPlainText(String s) {
+		for (int i = 0; i < s.length(); i++) {
+			char c = s.charAt(i);
+			if (c == '<' || c == '&' || c == '§')
+				return false;
+		}
+		return true;
+	}
+	
 	@SuppressWarnings("null")
 	public static MessageComponent[] parseToArray(String msg) {
 		return parse(msg).toArray(new MessageComponent[0]);
 	}
 	
 	public static String toJson(String msg) {
-		ComponentList componentList = new ComponentList(parse(msg));
-		String json = gson.toJson(componentList);
-		assert json != null;
-		return json;
+		return toJson(parse(msg));
 	}
 	
+	/**
+	 * Serializes the components to chat JSON. Only fields that are set are written, like GSON would do.
+	 * @param components Components of a message.
+	 * @return The message as JSON.
+	 */
 	public static String toJson(List<MessageComponent> components) {
-		ComponentList componentList = new ComponentList(components);
-		String json = gson.toJson(componentList);
+		StringBuilder b = jsonBuilders.get();
+		b.setLength(0);
+		b.append("{\"text\":\"\",\"extra\":[");
+		for (int i = 0; i < components.size(); i++) {
+			if (i != 0)
+				b.append(',');
+			appendJson(b, components.get(i));
+		}
+		b.append("]}");
+		String json = b.toString();
 		assert json != null;
+		if (b.capacity() > MAX_JSON_BUILDER_CAPACITY) // Don't keep huge buffers around
+			jsonBuilders.remove();
 		return json;
 	}
 	
+	private static void appendJson(StringBuilder b, MessageComponent component) {
+		b.append("{\"text\":");
+		appendString(b, component.text);
+		if (component.reset)
+			b.append(",\"reset\":true");
+		if (component.bold)
+			b.append(",\"bold\":true");
+		if (component.italic)
+			b.append(",\"italic\":true");
+		if (component.underlined)
+			b.append(",\"underlined\":true");
+		if (component.strikethrough)
+			b.append(",\"strikethrough\":true");
+		if (component.obfuscated)
+			b.append(",\"obfuscated\":true");
+		String color = component.color;
+		if (color != null) {
+			b.append(",\"color\":");
+			appendString(b, color);
+		}
+		String insertion = component.insertion;
+		if (insertion != null) {
+			b.append(",\"insertion\":");
+			appendString(b, insertion);
+		}
+		ClickEvent clickEvent = component.clickEvent;
+		if (clickEvent != null) {
+			b.append(",\"clickEvent\":{\"action\":\"").append(clickEvent.action.name()).append("\",\"value\":");
+			appendString(b, clickEvent.value);
+			b.append('}');
+		}
+		HoverEvent hoverEvent = component.hoverEvent;
+		if (hoverEvent != null) {
+			b.append(",\"hoverEvent\":{\"action\":\"").append(hoverEvent.action.name()).append("\",\"value\":");
+			appendString(b, hoverEvent.value);
+			b.append('}');
+		}
+		b.append('}');
+	}
+	
+	private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+	
+	/**
+	 * Appends the string as quoted and escaped JSON string.
+	 */
+	private static void appendString(StringBuilder b, String s) {
+		b.append('"');
+		int start = 0;
+		for (int i = 0; i < s.length(); i++) {
+			char c = s.charAt(i);
+			if (c >= 0x20 && c != '"' && c != '\\')
+				continue;
+			b.append(s, start, i);
+			start = i + 1;
+			switch (c) {
+				case '"':
+					b.append("\\\"");
+					break;
+				case '\\':
+					b.append("\\\\");
+					break;
+				case '\n':
+					b.append("\\n");
+					break;
+				case '\r':
+					b.append("\\r");
+					break;
+				case '\t':
+					b.append("\\t");
+					break;
+				default:
+					b.append("\\u00").append(HEX_DIGITS[c >> 4]).append(HEX_DIGITS[c & 0xF]);
+			}
+		}
+		b.append(s, start, s.length()).append('"');
+	}
+	
 	/**
 	 * Copies styles from component to another. Note that this only copies
 	 * additional styling, i.e. if text was not bold and is bold, it will remain bold.
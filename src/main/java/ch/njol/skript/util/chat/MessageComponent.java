@@ -21,13 +21,7 @@
 
 package ch.njol.skript.util.chat;
 
-import com.google.gson.JsonElement;
-import com.google.gson.JsonPrimitive;
-import com.google.gson.JsonSerializationContext;
-import com.google.gson.JsonSerializer;
-
 import javax.annotation.Nullable;
-import java.lang.reflect.Type;
 
 /**
  * Component for chat messages. This can be serialized with GSON and then
@@ -146,11 +140,22 @@ public class MessageComponent {
 	@Nullable
 	public HoverEvent hoverEvent;
 	
-	public static class BooleanSerializer implements JsonSerializer<Boolean> {
-
-		@Override
-		public @Nullable JsonElement serialize(@Nullable Boolean src, @Nullable Type typeOfSrc, @Nullable JsonSerializationContext context) {
-			return src ? new JsonPrimitive(true) : null;
-		}
+	/**
+	 * @return A copy of this component. The click and hover events are shared with this component.
+	 */
+	public MessageComponent copy() {
+		MessageComponent copy = new MessageComponent();
+		copy.text = text;
+		copy.reset = reset;
+		copy.bold = bold;
+		copy.italic = italic;
+		copy.underlined = underlined;
+		copy.strikethrough = strikethrough;
+		copy.obfuscated = obfuscated;
+		copy.color = color;
+		copy.insertion = insertion;
+		copy.clickEvent = clickEvent;
+		copy.hoverEvent = hoverEvent;
+		return copy;
 	}
 }
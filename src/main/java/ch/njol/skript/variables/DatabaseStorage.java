@@ -627,6 +627,13 @@ public class DatabaseStorage extends VariablesStorage {
 						lastRowID = r.getLong(i++);
 						if (value == null) {
 							Variables.variableLoaded(name, null, DatabaseStorage.this);
+						} else if (type != null && VariableCodecs.isCodecType(type)) {
+							final Object d = VariableCodecs.decode(type, value);
+							if (d == null) {
+								Skript.error("Cannot load the variable {" + name + "} from the database '" + databaseName + "', because its value of the type '" + type.substring(VariableCodecs.TYPE_PREFIX.length()) + "' is invalid or cannot be recognised");
+								continue;
+							}
+							Variables.variableLoaded(name, d, DatabaseStorage.this);
 						} else {
 							final ClassInfo<?> c = Classes.getClassInfoNoError(type);
 							@SuppressWarnings("unused")
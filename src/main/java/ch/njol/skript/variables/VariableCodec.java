@@ -0,0 +1,77 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ * Copyright 2011-2017 Peter Güttinger and contributors
+ */
+package ch.njol.skript.variables;
+
+import ch.njol.skript.classes.Serializer;
+
+import javax.annotation.Nullable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * A fixed binary layout for values of a single type, used to store variables of that type instead of the generic format of the type's
+ * {@link Serializer}.
+ * <p>
+ * The layout of a given version must never change. If a new layout is required the version has to be increased, and {@link #read(DataInputStream, int)}
+ * must still be able to read all previous versions.
+ * 
+ * @param <T> The type of the values
+ * @see VariableCodecs
+ */
+public abstract class VariableCodec<T> {
+	
+	private final Class<T> type;
+	
+	private final int version;
+	
+	/**
+	 * @param type The class of the values, which must be the class of the {@link ch.njol.skript.classes.ClassInfo} the codec is registered for
+	 * @param version The current version of the layout, between 1 and 255
+	 */
+	protected VariableCodec(final Class<T> type, final int version) {
+		assert version > 0 && version <= 0xFF : version;
+		this.type = type;
+		this.version = version;
+	}
+	
+	public Class<T> getType() {
+		return type;
+	}
+	
+	public int getVersion() {
+		return version;
+	}
+	
+	/**
+	 * Writes a value in the layout of the current {@link #getVersion() version}.
+	 */
+	public abstract void write(T value, DataOutputStream out) throws IOException;
+	
+	/**
+	 * Reads a value written by this codec.
+	 * 
+	 * @param version The version of the codec that wrote the value
+	 * @return The read value, or null if it cannot be restored (e.g. if the world of a location doesn't exist anymore)
+	 */
+	@Nullable
+	public abstract T read(DataInputStream in, int version) throws IOException;
+	
+}
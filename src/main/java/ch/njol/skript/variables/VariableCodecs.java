@@ -0,0 +1,236 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ * Copyright 2011-2017 Peter Güttinger and contributors
+ */
+package ch.njol.skript.variables;
+
+import ch.njol.skript.Skript;
+import ch.njol.skript.classes.ClassInfo;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.World;
+import org.bukkit.util.Vector;
+
+import javax.annotation.Nullable;
+import java.io.*;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Registry of {@link VariableCodec}s, which store common types more compactly and faster than Yggdrasil.
+ * <p>
+ * Values stored by a codec have the type {@link #TYPE_PREFIX} followed by the code name of their class info, and data consisting of the version of
+ * the codec followed by the value. Types without a codec are stored with their {@link ch.njol.skript.classes.Serializer} as before, and values stored by a
+ * serializer can always be loaded even if their type has a codec now.
+ * <p>
+ * Values stored by codecs can't be loaded by older versions of Skript or by tools that read the Yggdrasil data of variables, thus codecs are only used
+ * for saving if enabled in the config (see {@link #setEncodingEnabled(boolean)}). Values stored by codecs are always loaded.
+ */
+public final class VariableCodecs {
+	
+	private VariableCodecs() {}
+	
+	/**
+	 * Prefixed to the code name of a type to get the type of values stored by a codec. This is not a valid character in code names, thus values stored
+	 * by codecs can't be mistaken for values stored by serializers.
+	 */
+	public final static String TYPE_PREFIX = "#";
+	
+	private final static class Entry {
+		final VariableCodec<?> codec;
+		final String type;
+		
+		Entry(final VariableCodec<?> codec, final String type) {
+			this.codec = codec;
+			this.type = type;
+		}
+	}
+	
+	/**
+	 * Codecs by the code name of their class info. Only modified while registrations are accepted.
+	 */
+	private final static Map<String, Entry> codecs = new HashMap<>();
+	
+	private static volatile boolean encodingEnabled = false;
+	
+	/**
+	 * Sets whether values are saved with codecs. Values stored by codecs are loaded regardless of this setting.
+	 * 
+	 * @param enabled
+	 */
+	public static void setEncodingEnabled(final boolean enabled) {
+		encodingEnabled = enabled;
+	}
+	
+	public static boolean isEncodingEnabled() {
+		return encodingEnabled;
+	}
+	
+	/**
+	 * Registers a codec for values of the given class info. Values of the type that were saved before the codec was registered will still be loaded by the
+	 * class info's serializer.
+	 * 
+	 * @param info The class info whose values should be stored by the codec
+	 * @param codec A codec for values of exactly the class of the class info
+	 */
+	public static <T> void registerCodec(final ClassInfo<T> info, final VariableCodec<T> codec) {
+		Skript.checkAcceptRegistrations();
+		if (info.getSerializer() == null)
+			throw new IllegalArgumentException(info + " cannot be saved in variables");
+		codecs.put(info.getCodeName(), new Entry(codec, TYPE_PREFIX + info.getCodeName()));
+	}
+	
+	private static void registerDefaultCodec(final String codeName, final VariableCodec<?> codec) {
+		codecs.put(codeName, new Entry(codec, TYPE_PREFIX + codeName));
+	}
+	
+	static {
+		registerDefaultCodec("location", new VariableCodec<Location>(Location.class, 1) {
+			@Override
+			public void write(final Location l, final DataOutputStream out) throws IOException {
+				final World w = l.getWorld();
+				out.writeBoolean(w != null);
+				if (w != null)
+					out.writeUTF(w.getName());
+				out.writeDouble(l.getX());
+				out.writeDouble(l.getY());
+				out.writeDouble(l.getZ());
+				out.writeFloat(l.getYaw());
+				out.writeFloat(l.getPitch());
+			}
+			
+			@Override
+			@Nullable
+			public Location read(final DataInputStream in, final int version) throws IOException {
+				World w = null;
+				if (in.readBoolean()) {
+					w = Bukkit.getWorld(in.readUTF());
+					if (w == null)
+						return null;
+				}
+				return new Location(w, in.readDouble(), in.readDouble(), in.readDouble(), in.readFloat(), in.readFloat());
+			}
+		});
+		registerDefaultCodec("world", new VariableCodec<World>(World.class, 1) {
+			@Override
+			public void write(final World w, final DataOutputStream out) throws IOException {
+				out.writeUTF(w.getName());
+			}
+			
+			@Override
+			@Nullable
+			public World read(final DataInputStream in, final int version) throws IOException {
+				return Bukkit.getWorld(in.readUTF());
+			}
+		});
+		registerDefaultCodec("vector", new VariableCodec<Vector>(Vector.class, 1) {
+			@Override
+			public void write(final Vector v, final DataOutputStream out) throws IOException {
+				out.writeDouble(v.getX());
+				out.writeDouble(v.getY());
+				out.writeDouble(v.getZ());
+			}
+			
+			@Override
+			public Vector read(final DataInputStream in, final int version) throws IOException {
+				return new Vector(in.readDouble(), in.readDouble(), in.readDouble());
+			}
+		});
+		if (Skript.methodExists(OfflinePlayer.class, "getUniqueId")) {
+			registerDefaultCodec("offlineplayer", new VariableCodec<OfflinePlayer>(OfflinePlayer.class, 1) {
+				@Override
+				public void write(final OfflinePlayer p, final DataOutputStream out) throws IOException {
+					final UUID uuid = p.getUniqueId();
+					out.writeLong(uuid.getMostSignificantBits());
+					out.writeLong(uuid.getLeastSignificantBits());
+				}
+				
+				@Override
+				@Nullable
+				public OfflinePlayer read(final DataInputStream in, final int version) throws IOException {
+					return Bukkit.getOfflinePlayer(new UUID(in.readLong(), in.readLong()));
+				}
+			});
+		}
+	}
+	
+	/**
+	 * @return Whether the given type is the type of values stored by a codec
+	 */
+	public static boolean isCodecType(final String type) {
+		return type.startsWith(TYPE_PREFIX);
+	}
+	
+	/**
+	 * Stores a value with the codec of the given class info.
+	 * 
+	 * @param info The class info the value will be stored as, i.e. after {@link ClassInfo#getSerializeAs()} has been applied
+	 * @return The stored value, or null if the class info has no codec or codecs are disabled
+	 */
+	@Nullable
+	public static SerializedVariable.Value encode(final ClassInfo<?> info, final Object o) {
+		if (!encodingEnabled)
+			return null;
+		final Entry e = codecs.get(info.getCodeName());
+		if (e == null || !e.codec.getType().isInstance(o))
+			return null;
+		final ByteArrayOutputStream bout = new ByteArrayOutputStream(32);
+		final DataOutputStream out = new DataOutputStream(bout);
+		try {
+			out.writeByte(e.codec.getVersion());
+			write(e.codec, o, out);
+			out.flush();
+		} catch (final IOException ex) { // shouldn't happen
+			Skript.exception(ex);
+			return null;
+		}
+		return new SerializedVariable.Value(e.type, bout.toByteArray());
+	}
+	
+	@SuppressWarnings("unchecked")
+	private static <T> void write(final VariableCodec<T> codec, final Object o, final DataOutputStream out) throws IOException {
+		codec.write((T) o, out);
+	}
+	
+	/**
+	 * Loads a value stored by a codec.
+	 * 
+	 * @param type A type for which {@link #isCodecType(String)} returns true
+	 * @return The loaded value, or null if the type is unknown or the data is invalid
+	 */
+	@Nullable
+	public static Object decode(final String type, final byte[] data) {
+		assert isCodecType(type) : type;
+		final Entry e = codecs.get(type.substring(TYPE_PREFIX.length()));
+		if (e == null || data.length == 0)
+			return null;
+		final int version = data[0] & 0xFF;
+		if (version == 0 || version > e.codec.getVersion()) // saved by a later version of Skript
+			return null;
+		try {
+			return e.codec.read(new DataInputStream(new ByteArrayInputStream(data, 1, data.length - 1)), version);
+		} catch (final IOException ex) { // i.e. invalid save
+			if (Skript.testing())
+				ex.printStackTrace();
+			return null;
+		}
+	}
+	
+}
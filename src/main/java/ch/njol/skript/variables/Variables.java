@@ -431,7 +431,28 @@ public abstract class Variables {
 	}
 	
 	private final static void saveVariableChange(final String name, final @Nullable Object value) {
-		queue.add(serialize(name, value));
+		if (value != null && Classes.canBeSerializedAsync(value))
+			queue.add(new AsyncSerializedVariable(name, value));
+		else
+			queue.add(serialize(name, value));
+	}
+	
+	/**
+	 * A changed variable whose value is only serialised by the save thread, see {@link ch.njol.skript.classes.Serializer#canBeSerializedAsync()}.
+	 */
+	private final static class AsyncSerializedVariable extends SerializedVariable {
+		
+		private final Object unserializedValue;
+		
+		AsyncSerializedVariable(final String name, final Object value) {
+			super(name, null);
+			unserializedValue = value;
+		}
+		
+		void serialize() {
+			value = Classes.serialize(unserializedValue);
+		}
+		
 	}
 	
 	final static BlockingQueue<SerializedVariable> queue = new LinkedBlockingQueue<SerializedVariable>();
@@ -444,6 +465,8 @@ public abstract class Variables {
 			while (!closed) {
 				try {
 					final SerializedVariable v = queue.take();
+					if (v instanceof AsyncSerializedVariable)
+						((AsyncSerializedVariable) v).serialize();
 					for (final VariablesStorage s : storages) {
 						if (s.accept(v.name)) {
 							s.save(v);
@@ -0,0 +1,114 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ * Copyright 2011-2017 Peter Güttinger and contributors
+ */
+package ch.njol.util.coll;
+
+import javax.annotation.Nullable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * A thread-safe cache for values that depend on a pair of classes, e.g. converters or comparators.
+ * <p>
+ * The first class is looked up through a {@link ClassValue} and the second one in a {@link ConcurrentHashMap}, thus retrieving a cached value doesn't allocate any objects.
+ * Missing values are computed exactly once per pair by the cache's {@link Loader}, which may return null.
+ * 
+ * @param <V> The type of the cached values
+ */
+public final class ClassPairCache<V> {
+	
+	public static interface Loader<V> {
+		
+		/**
+		 * Computes the value for a pair of classes. This must not access the cache that is calling it.
+		 */
+		@Nullable
+		public V load(Class<?> first, Class<?> second);
+		
+	}
+	
+	/**
+	 * Placeholder for null values, as {@link ConcurrentHashMap} doesn't support null values.
+	 */
+	private final static Object NULL = new Object();
+	
+	final Loader<V> loader;
+	
+	private volatile ClassValue<Row> rows = newRows();
+	
+	public ClassPairCache(final Loader<V> loader) {
+		this.loader = loader;
+	}
+	
+	/**
+	 * The cached values for one first class.
+	 */
+	private final class Row extends ConcurrentHashMap<Class<?>, Object> implements Function<Class<?>, Object> {
+		
+		private static final long serialVersionUID = -2925937413302213434L;
+		
+		private final Class<?> first;
+		
+		Row(final Class<?> first) {
+			this.first = first;
+		}
+		
+		@Override
+		public Object apply(final Class<?> second) {
+			final V v = loader.load(first, second);
+			return v == null ? NULL : v;
+		}
+		
+	}
+	
+	private ClassValue<Row> newRows() {
+		return new ClassValue<Row>() {
+			@Override
+			protected Row computeValue(final @Nullable Class<?> first) {
+				assert first != null;
+				return new Row(first);
+			}
+		};
+	}
+	
+	/**
+	 * Gets the value for the given pair of classes, computing it if it is not cached yet.
+	 * 
+	 * @param first
+	 * @param second
+	 * @return The value, which may be null if the loader returned null
+	 */
+	@SuppressWarnings("unchecked")
+	@Nullable
+	public V get(final Class<?> first, final Class<?> second) {
+		final Row row = rows.get(first);
+		Object v = row.get(second);
+		if (v == null)
+			v = row.computeIfAbsent(second, row);
+		return v == NULL ? null : (V) v;
+	}
+	
+	/**
+	 * Removes all cached values, e.g. if the values returned by the loader have changed.
+	 */
+	public void clear() {
+		rows = newRows();
+	}
+	
+}
@@ -0,0 +1,198 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *
+ * Copyright 2011-2017 Peter Güttinger and contributors
+ */
+package ch.njol.yggdrasil;
+
+import ch.njol.yggdrasil.Fields.FieldContext;
+import ch.njol.yggdrasil.YggdrasilSerializable.YggdrasilRobustSerializable;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+import java.io.NotSerializableException;
+import java.io.StreamCorruptedException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The serialisable fields of a class together with method handles to get and set them, created once per class.
+ * <p>
+ * Fields are indexed in the order they are written to streams, which is the iteration order of the map of a {@link Fields} object created for an
+ * object of the class. Objects written by {@link YggdrasilOutputStream} thus stay the same byte for byte.
+ */
+@ThreadSafe
+final class ClassFields {
+	
+	private final static ConcurrentMap<Class<?>, ClassFields> cache = new ConcurrentHashMap<>();
+	
+	private final static MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+	private final static MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+	
+	/**
+	 * All fields in the order of declaration, starting with the given class and ending with its topmost superclass
+	 */
+	final Collection<Field> declared;
+	
+	final Field[] fields;
+	final String[] ids;
+	final boolean[] primitive;
+	
+	private final MethodHandle[] getters;
+	/** A setter is null if no method handle could be created, e.g. for some final fields. {@link Field#set(Object, Object)} is used instead. */
+	private final MethodHandle[] setters;
+	
+	private final Map<String, Integer> indices = new HashMap<>();
+	
+	private ClassFields(final Class<?> c) throws NotSerializableException {
+		final List<Field> declared = new ArrayList<>();
+		final Map<String, Field> byID = new HashMap<>();
+		for (Class<?> sc = c; sc != null; sc = sc.getSuperclass()) {
+			final Field[] fs = sc.getDeclaredFields();
+			for (final Field f : fs) {
+				final int m = f.getModifiers();
+				if (Modifier.isStatic(m) || Modifier.isTransient(m))
+					continue;
+				final String id = Yggdrasil.getID(f);
+				if (byID.containsKey(id))
+					throw new NotSerializableException(c + "/" + sc + ": duplicate field id '" + id + "'");
+				f.setAccessible(true);
+				declared.add(f);
+				byID.put(id, f);
+			}
+		}
+		this.declared = Collections.unmodifiableList(declared);
+		
+		final int size = byID.size();
+		fields = new Field[size];
+		ids = new String[size];
+		primitive = new boolean[size];
+		getters = new MethodHandle[size];
+		setters = new MethodHandle[size];
+		final MethodHandles.Lookup lookup = MethodHandles.lookup();
+		int i = 0;
+		for (final Map.Entry<String, Field> e : byID.entrySet()) {
+			final Field f = e.getValue();
+			fields[i] = f;
+			ids[i] = e.getKey();
+			primitive[i] = f.getType().isPrimitive();
+			try {
+				getters[i] = lookup.unreflectGetter(f).asType(GETTER_TYPE);
+			} catch (final IllegalAccessException ex) {
+				throw new YggdrasilException("Cannot access field " + ids[i] + " of " + f.getDeclaringClass(), ex);
+			}
+			try {
+				setters[i] = lookup.unreflectSetter(f).asType(SETTER_TYPE);
+			} catch (final IllegalAccessException ex) {
+				setters[i] = null;
+			}
+			indices.put(ids[i], i);
+			i++;
+		}
+	}
+	
+	public static ClassFields get(final Class<?> c) throws NotSerializableException {
+		ClassFields fields = cache.get(c);
+		if (fields == null) {
+			fields = new ClassFields(c);
+			final ClassFields old = cache.putIfAbsent(c, fields);
+			if (old != null)
+				fields = old;
+		}
+		return fields;
+	}
+	
+	public int size() {
+		return fields.length;
+	}
+	
+	/**
+	 * @return The index of the field with the given id, or -1 if the class has no such field
+	 */
+	public int indexOf(final String id) {
+		final Integer i = indices.get(id);
+		return i == null ? -1 : i;
+	}
+	
+	/**
+	 * @return The value of the given field of the given object. Primitives are returned wrapped.
+	 */
+	@Nullable
+	public Object get(final Object o, final int i) {
+		try {
+			return (Object) getters[i].invokeExact(o);
+		} catch (final RuntimeException | Error e) {
+			throw e;
+		} catch (final Throwable t) {
+			throw new YggdrasilException(t);
+		}
+	}
+	
+	/**
+	 * Sets a field of the given object like {@link FieldContext#setField(Object, Field, Yggdrasil)} does.
+	 */
+	public void set(final Object o, final int i, final @Nullable Object value, final boolean isPrimitive, final Yggdrasil y) throws StreamCorruptedException {
+		final Field f = fields[i];
+		if (primitive[i] != isPrimitive)
+			throw new StreamCorruptedException("The field " + ids[i] + " of " + f.getDeclaringClass() + " is " + (primitive[i] ? "" : "not ") + "primitive");
+		try {
+			final MethodHandle setter = setters[i];
+			if (setter != null)
+				setter.invokeExact(o, value);
+			else
+				f.set(o, value);
+		} catch (final IllegalArgumentException | ClassCastException e) {
+			final FieldContext c = new FieldContext(ids[i], value, isPrimitive);
+			if (!(o instanceof YggdrasilRobustSerializable) || !((YggdrasilRobustSerializable) o).incompatibleField(f, c))
+				y.incompatibleField(o, f, c);
+		} catch (final RuntimeException | Error e) {
+			throw e;
+		} catch (final Throwable t) {
+			throw new YggdrasilException(t);
+		}
+	}
+	
+	/**
+	 * Handles all fields that have not been set.
+	 * 
+	 * @param set Which fields have been set, by index
+	 */
+	public void handleMissingFields(final Object o, final boolean[] set, final Yggdrasil y) throws StreamCorruptedException {
+		for (int i = 0; i < fields.length; i++) {
+			if (set[i])
+				continue;
+			final Field f = fields[i];
+			if (!(o instanceof YggdrasilRobustSerializable) || !((YggdrasilRobustSerializable) o).missingField(f))
+				y.missingField(o, f);
+		}
+	}
+	
+	public static void handleExcessiveFields(final Object o, final Collection<FieldContext> excessive, final Yggdrasil y) throws StreamCorruptedException {
+		for (final FieldContext f : excessive) {
+			assert f != null;
+			if (!(o instanceof YggdrasilRobustSerializable) || !((YggdrasilRobustSerializable) o).excessiveField(f))
+				y.excessiveField(o, f);
+		}
+	}
+	
+}
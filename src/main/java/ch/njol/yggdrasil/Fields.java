@@ -53,10 +53,10 @@ public final class Fields implements Iterable<FieldContext> {
 			this.id = id;
 		}
 		
-		FieldContext(final Field f, final Object o) throws IllegalArgumentException, IllegalAccessException {
-			id = Yggdrasil.getID(f);
-			value = f.get(o);
-			isPrimitiveValue = f.getType().isPrimitive();
+		FieldContext(final String id, final @Nullable Object value, final boolean isPrimitiveValue) {
+			this.id = id;
+			this.value = value;
+			this.isPrimitiveValue = isPrimitiveValue;
 		}
 		
 		public String getID() {
@@ -213,20 +213,13 @@ public final class Fields implements Iterable<FieldContext> {
 		this.yggdrasil = yggdrasil;
 		final Class<?> c = o.getClass();
 		assert c != null;
-		for (final Field f : getFields(c)) {
-			assert f != null;
-			try {
-				fields.put(Yggdrasil.getID(f), new FieldContext(f, o));
-			} catch (final IllegalArgumentException e) {
-				assert false;
-			} catch (final IllegalAccessException e) {
-				assert false;
-			}
+		final ClassFields cf = ClassFields.get(c);
+		for (int i = 0; i < cf.size(); i++) {
+			final String id = cf.ids[i];
+			fields.put(id, new FieldContext(id, cf.get(o, i), cf.primitive[i]));
 		}
 	}
 	
-	private final static Map<Class<?>, Collection<Field>> cache = new HashMap<>();
-	
 	/**
 	 * Gets all serialisable fields of the provided class, including superclasses.
 	 * 
@@ -235,29 +228,7 @@ public final class Fields implements Iterable<FieldContext> {
 	 * @throws NotSerializableException If a field occurs more than once (i.e. if a class has a field with the same name as a field in one of its superclasses)
 	 */
 	public final static Collection<Field> getFields(final Class<?> c) throws NotSerializableException {
-		Collection<Field> fields = cache.get(c);
-		if (fields != null)
-			return fields;
-		fields = new ArrayList<>();
-		final Set<String> ids = new HashSet<>();
-		for (Class<?> sc = c; sc != null; sc = sc.getSuperclass()) {
-			final Field[] fs = sc.getDeclaredFields();
-			for (final Field f : fs) {
-				final int m = f.getModifiers();
-				if (Modifier.isStatic(m) || Modifier.isTransient(m))
-					continue;
-				final String id = Yggdrasil.getID(f);
-				if (ids.contains(id))
-					throw new NotSerializableException(c + "/" + sc + ": duplicate field id '" + id + "'");
-				f.setAccessible(true);
-				fields.add(f);
-				ids.add(id);
-			}
-		}
-		fields = Collections.unmodifiableCollection(fields);
-		assert fields != null;
-		cache.put(c, fields);
-		return fields;
+		return ClassFields.get(c).declared;
 	}
 	
 	/**
@@ -275,23 +246,18 @@ public final class Fields implements Iterable<FieldContext> {
 		final Set<FieldContext> excessive = new HashSet<>(fields.values());
 		final Class<?> oc = o.getClass();
 		assert oc != null;
-		for (final Field f : getFields(oc)) {
-			assert f != null;
-			final String id = Yggdrasil.getID(f);
-			final FieldContext c = fields.get(id);
-			if (c == null) {
-				if (!(o instanceof YggdrasilRobustSerializable) || !((YggdrasilRobustSerializable) o).missingField(f))
-					y.missingField(o, f);
-			} else {
-				c.setField(o, f, y);
-			}
+		final ClassFields cf = ClassFields.get(oc);
+		final boolean[] set = new boolean[cf.size()];
+		for (int i = 0; i < set.length; i++) {
+			final FieldContext c = fields.get(cf.ids[i]);
+			if (c == null)
+				continue;
+			cf.set(o, i, c.value, c.isPrimitiveValue, y);
+			set[i] = true;
 			excessive.remove(c);
 		}
-		for (final FieldContext f : excessive) {
-			assert f != null;
-			if (!(o instanceof YggdrasilRobustSerializable) || !((YggdrasilRobustSerializable) o).excessiveField(f))
-				y.excessiveField(o, f);
-		}
+		cf.handleMissingFields(o, set, y);
+		ClassFields.handleExcessiveFields(o, excessive, y);
 	}
 	
 	@Deprecated
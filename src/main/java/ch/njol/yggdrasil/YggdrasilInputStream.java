@@ -19,6 +19,7 @@
  */
 package ch.njol.yggdrasil;
 
+import ch.njol.yggdrasil.Fields.FieldContext;
 import ch.njol.yggdrasil.YggdrasilSerializable.YggdrasilExtendedSerializable;
 
 import javax.annotation.Nullable;
@@ -27,7 +28,9 @@ import java.io.IOException;
 import java.io.StreamCorruptedException;
 import java.lang.reflect.Array;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import static ch.njol.yggdrasil.Tag.*;
 
@@ -128,6 +131,37 @@ public abstract class YggdrasilInputStream implements Closeable {
 		return fields;
 	}
 	
+	/**
+	 * Reads the fields of a generic object and sets them directly, with the same results as reading them with {@link #readFields()} and calling
+	 * {@link Fields#setFields(Object)}.
+	 */
+	private final void readFields(final Object o) throws IOException {
+		final Class<?> c = o.getClass();
+		assert c != null;
+		final ClassFields classFields = ClassFields.get(c);
+		final boolean[] set = new boolean[classFields.size()];
+		Map<String, FieldContext> excessive = null;
+		final short numFields = readNumFields();
+		for (int i = 0; i < numFields; i++) {
+			final String id = readFieldID();
+			final Tag t = readTag();
+			final boolean primitive = t.isPrimitive();
+			final Object value = primitive ? readPrimitive(t) : readObject(t);
+			final int index = classFields.indexOf(id);
+			if (index != -1) {
+				classFields.set(o, index, value, primitive, yggdrasil);
+				set[index] = true;
+			} else {
+				if (excessive == null)
+					excessive = new HashMap<>();
+				excessive.put(id, new FieldContext(id, value, primitive));
+			}
+		}
+		classFields.handleMissingFields(o, set, yggdrasil);
+		if (excessive != null)
+			ClassFields.handleExcessiveFields(o, excessive.values(), yggdrasil);
+	}
+	
 	// any Objects
 	
 	private final List<Object> readObjects = new ArrayList<>();
@@ -197,13 +231,12 @@ public abstract class YggdrasilInputStream implements Closeable {
 					if (o == null)
 						throw new StreamCorruptedException();
 					readObjects.add(o);
-					final Fields fields = readFields();
 					if (s != null) {
-						s.deserialize(o, fields);
+						s.deserialize(o, readFields());
 					} else if (o instanceof YggdrasilExtendedSerializable) {
-						((YggdrasilExtendedSerializable) o).deserialize(fields);
+						((YggdrasilExtendedSerializable) o).deserialize(readFields());
 					} else {
-						fields.setFields(o);
+						readFields(o);
 					}
 				}
 				return o;
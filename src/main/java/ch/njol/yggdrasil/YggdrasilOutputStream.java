@@ -165,7 +165,8 @@ public abstract class YggdrasilOutputStream implements Flushable, Closeable {
 		assert c != null;
 		if (!yggdrasil.isSerializable(c))
 			throw new NotSerializableException(c.getName());
-		final Fields fields;
+		Fields fields = null;
+		ClassFields classFields = null;
 		final YggdrasilSerializer s = yggdrasil.getSerializer(c);
 		if (s != null) {
 			fields = s.serialize(o);
@@ -180,20 +181,36 @@ public abstract class YggdrasilOutputStream implements Flushable, Closeable {
 			if (fields == null)
 				throw new YggdrasilException("The serialize() method of " + c + " returned null");
 		} else {
-			fields = new Fields(o, yggdrasil);
+			classFields = ClassFields.get(c);
 		}
-		if (fields.size() > Short.MAX_VALUE)
-			throw new YggdrasilException("Class " + c.getCanonicalName() + " has too many fields (" + fields.size() + ")");
+		final int numFields = fields != null ? fields.size() : classFields.size();
+		if (numFields > Short.MAX_VALUE)
+			throw new YggdrasilException("Class " + c.getCanonicalName() + " has too many fields (" + numFields + ")");
 		
 		writeTag(T_OBJECT);
 		writeObjectType(yggdrasil.getID(c));
-		writeNumFields((short) fields.size());
-		for (final FieldContext f : fields) {
-			writeFieldID(f.id);
-			if (f.isPrimitive())
-				writePrimitive(f.getPrimitive());
-			else
-				writeObject(f.getObject());
+		writeNumFields((short) numFields);
+		if (fields != null) {
+			for (final FieldContext f : fields) {
+				writeFieldID(f.id);
+				if (f.isPrimitive())
+					writePrimitive(f.getPrimitive());
+				else
+					writeObject(f.getObject());
+			}
+		} else {
+			// written in the same order as Fields would, without copying the values into FieldContexts first
+			assert classFields != null;
+			for (int i = 0; i < numFields; i++) {
+				writeFieldID(classFields.ids[i]);
+				final Object value = classFields.get(o, i);
+				if (classFields.primitive[i]) {
+					assert value != null;
+					writePrimitive(value);
+				} else {
+					writeObject(value);
+				}
+			}
 		}
 		writeObjectEnd();
 		